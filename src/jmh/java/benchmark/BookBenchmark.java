@@ -0,0 +1,41 @@
+package benchmark;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.move.Move;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence d'une recherche dans le livre d'ouvertures : position présente dans le livre (position initiale)
+ * et position absente (le livre est parcouru sans succès)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BookBenchmark {
+    private Object book;
+    private Board inBook;
+    private Board outOfBook;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Board[] boards = Positions.boards();
+        this.book = Engine.newBook();
+        this.inBook = boards[0];
+        this.outOfBook = boards[boards.length - 1];
+    }
+
+    @Benchmark
+    public Move probeHit() {
+        return Engine.bookMove(this.book, this.inBook);
+    }
+
+    @Benchmark
+    public Move probeMiss() {
+        return Engine.bookMove(this.book, this.outOfBook);
+    }
+}
@@ -0,0 +1,206 @@
+package benchmark;
+
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Accès aux classes du moteur depuis les benchmarks.
+ * Le moteur est dans le package par défaut, qu'aucune classe d'un package nommé ne peut importer, et JMH refuse
+ * les benchmarks du package par défaut : les appels passent donc par des MethodHandle "static final", que le JIT
+ * traite comme des constantes (coût équivalent à un appel direct).
+ */
+final class Engine {
+    private static final MethodHandle NEW_STOP;
+    private static final MethodHandle NEW_TABLE;
+    private static final MethodHandle CLEAR_TABLE;
+    private static final MethodHandle NEW_NODE;
+    private static final MethodHandle ALPHA_BETA;
+    private static final MethodHandle NODE_NODES;
+    private static final MethodHandle NEW_LEFT_SIDE_NODE;
+    private static final MethodHandle PVS;
+    private static final MethodHandle RESULT_NODES;
+    private static final MethodHandle BASIC_EVALUATION;
+    private static final MethodHandle TAPERED_EVALUATION;
+    private static final MethodHandle POLYGLOT_KEY;
+    private static final MethodHandle NEW_BOOK;
+    private static final MethodHandle BOOK_MOVE;
+    private static final int INFINITY;
+    private static final String[] BENCH_POSITIONS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> stop = Class.forName("Stop");
+            Class<?> table = Class.forName("TranspositionTable");
+            Class<?> node = Class.forName("Node");
+            Class<?> leftSideNode = Class.forName("LeftSideNode");
+            Class<?> result = Class.forName("Result");
+            Class<?> book = Class.forName("openingBook");
+
+            NEW_STOP = generic(lookup.findConstructor(stop, methodType(void.class)));
+            NEW_TABLE = generic(lookup.findConstructor(table, methodType(void.class, int.class)));
+            CLEAR_TABLE = generic(lookup.findVirtual(table, "clear", methodType(void.class)));
+            NEW_NODE = generic(lookup.findConstructor(node, methodType(void.class, Board.class, int.class,
+                    boolean.class, Move.class, int.class, int.class, stop, table)));
+            ALPHA_BETA = generic(lookup.findVirtual(node, "alphaBetaCutOff", methodType(int.class, Board.class,
+                    int.class, int.class, int.class, boolean.class)));
+            NODE_NODES = generic(lookup.findVirtual(node, "getNodesExplored", methodType(int.class)));
+            NEW_LEFT_SIDE_NODE = generic(lookup.findConstructor(leftSideNode, methodType(void.class, Board.class,
+                    int.class, int.class, int.class, boolean.class, stop, table)));
+            PVS = generic(lookup.findVirtual(leftSideNode, "PVS", methodType(result)));
+            RESULT_NODES = generic(lookup.findVirtual(result, "nodeExplored", methodType(int.class)));
+            BASIC_EVALUATION = generic(lookup.findStatic(Class.forName("BasicEvaluation"), "evaluate",
+                    methodType(int.class, Board.class)));
+            TAPERED_EVALUATION = generic(lookup.findStatic(Class.forName("TaperedEvaluation"), "eval",
+                    methodType(int.class, Board.class)));
+            POLYGLOT_KEY = generic(lookup.findStatic(Class.forName("fenToPolyglot"), "getKey",
+                    methodType(long.class, String.class)));
+            NEW_BOOK = generic(lookup.findConstructor(book, methodType(void.class)));
+            BOOK_MOVE = generic(lookup.findVirtual(book, "getMove", methodType(Move.class, Board.class)));
+            INFINITY = (int) lookup.findStaticGetter(node, "INFINITY", int.class).invokeExact();
+            BENCH_POSITIONS = (String[]) lookup.findStaticGetter(Class.forName("Bench"), "POSITIONS",
+                    String[].class).invokeExact();
+        } catch (Throwable e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private Engine() {}
+
+    /**
+     * Remplace les types du moteur par Object dans la signature, pour pouvoir appeler invokeExact depuis ce package
+     */
+    private static MethodHandle generic(MethodHandle handle) {
+        MethodType type = handle.type();
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isEngineClass(type.parameterType(i)))
+                type = type.changeParameterType(i, Object.class);
+        }
+        if (isEngineClass(type.returnType()))
+            type = type.changeReturnType(Object.class);
+        return handle.asType(type);
+    }
+
+    private static boolean isEngineClass(Class<?> c) {
+        return !c.isPrimitive() && c.getPackageName().isEmpty();
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException r)
+            return r;
+        if (e instanceof Error err)
+            throw err;
+        return new IllegalStateException(e);
+    }
+
+    /**
+     * @return String[] : Positions de la commande "bench" (copie)
+     */
+    static String[] benchPositions() {
+        return BENCH_POSITIONS.clone();
+    }
+
+    /**
+     * @param sizeMb : Taille de la table en Mo
+     * @return Object : Nouvelle TranspositionTable
+     */
+    static Object newTranspositionTable(int sizeMb) {
+        try {
+            return (Object) NEW_TABLE.invokeExact(sizeMb);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    static void clear(Object transpositionTable) {
+        try {
+            CLEAR_TABLE.invokeExact(transpositionTable);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Alpha beta sur un seul thread (Node.alphaBetaCutOff), fenêtre complète
+     *
+     * @return int : Nombre de noeuds explorés
+     */
+    static int alphaBeta(Board board, int depth, Object transpositionTable) {
+        try {
+            boolean white = board.getSideToMove() == Side.WHITE;
+            Object node = (Object) NEW_NODE.invokeExact(board, depth, white, (Move) null, -INFINITY, INFINITY,
+                    (Object) NEW_STOP.invokeExact(), transpositionTable);
+            int score = (int) ALPHA_BETA.invokeExact(node, board, depth, -INFINITY, INFINITY, white); // Ignoré
+            return (int) NODE_NODES.invokeExact(node);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Principal variation splitting (LeftSideNode.PVS) avec la pool de recherche, fenêtre complète
+     *
+     * @return int : Nombre de noeuds explorés
+     */
+    static int pvs(Board board, int depth, Object transpositionTable) {
+        try {
+            boolean white = board.getSideToMove() == Side.WHITE;
+            Object root = (Object) NEW_LEFT_SIDE_NODE.invokeExact(board, depth, -INFINITY, INFINITY, white,
+                    (Object) NEW_STOP.invokeExact(), transpositionTable);
+            Object result = (Object) PVS.invokeExact(root);
+            return (int) RESULT_NODES.invokeExact(result);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    static int basicEvaluation(Board board) {
+        try {
+            return (int) BASIC_EVALUATION.invokeExact(board);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    static int taperedEvaluation(Board board) {
+        try {
+            return (int) TAPERED_EVALUATION.invokeExact(board);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    static long polyglotKey(String fen) {
+        try {
+            return (long) POLYGLOT_KEY.invokeExact(fen);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * @return Object : Nouveau openingBook
+     */
+    static Object newBook() {
+        try {
+            return (Object) NEW_BOOK.invokeExact();
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    static Move bookMove(Object book, Board board) {
+        try {
+            return (Move) BOOK_MOVE.invokeExact(book, board);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+}
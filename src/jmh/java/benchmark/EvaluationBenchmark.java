@@ -0,0 +1,42 @@
+package benchmark;
+
+import com.github.bhlangonijr.chesslib.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluations par seconde : une opération = une évaluation, les positions de la suite sont parcourues en boucle
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+    private Board[] boards;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.boards = Positions.boards();
+        this.next = 0;
+    }
+
+    private Board nextBoard() {
+        Board board = this.boards[this.next];
+        this.next = (this.next + 1) % this.boards.length;
+        return board;
+    }
+
+    @Benchmark
+    public int basicEvaluation() {
+        return Engine.basicEvaluation(nextBoard());
+    }
+
+    @Benchmark
+    public int taperedEvaluation() {
+        return Engine.taperedEvaluation(nextBoard());
+    }
+}
@@ -0,0 +1,28 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Point d'entrée de benchmarks.jar : lance JMH avec un rapport JSON (jmh-result.json) sauf si un autre format
+ * est demandé avec -rf / -rff. Les JVM des benchmarks chargent le module de l'API Vector (évaluation NNUE).
+ */
+public class JmhMain {
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add("-rf");
+            options.add("json");
+        }
+        if (!options.contains("-rff")) {
+            options.add("-rff");
+            options.add("jmh-result.json");
+        }
+        if (!options.contains("-jvmArgsAppend")) {
+            options.add("-jvmArgsAppend");
+            options.add("--add-modules=jdk.incubator.vector");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,25 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clés Polyglot calculées par seconde (fenToPolyglot.getKey) sur les positions de la suite
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PolyglotBenchmark {
+    private int next;
+
+    @Benchmark
+    public long getKey() {
+        String fen = Positions.FENS[this.next];
+        this.next = (this.next + 1) % Positions.FENS.length;
+        return Engine.polyglotKey(fen);
+    }
+}
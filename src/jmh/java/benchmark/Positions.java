@@ -0,0 +1,24 @@
+package benchmark;
+
+import com.github.bhlangonijr.chesslib.Board;
+
+/**
+ * Suite fixe de positions utilisée par tous les benchmarks : celle de la commande "bench" du moteur (Bench)
+ */
+final class Positions {
+    static final String[] FENS = Engine.benchPositions();
+
+    private Positions() {}
+
+    /**
+     * @return Board[] : Une copie de chaque position de la suite
+     */
+    static Board[] boards() {
+        Board[] boards = new Board[FENS.length];
+        for (int i = 0; i < FENS.length; i++) {
+            boards[i] = new Board();
+            boards[i].loadFromFen(FENS[i]);
+        }
+        return boards;
+    }
+}
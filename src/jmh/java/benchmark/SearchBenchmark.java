@@ -0,0 +1,69 @@
+package benchmark;
+
+import com.github.bhlangonijr.chesslib.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Noeuds par seconde de la recherche à profondeur fixe sur toute la suite de positions.
+ * Une opération = la suite complète, la table de transpositions est vidée avant chaque opération pour que
+ * chaque mesure explore le même arbre. Le débit en noeuds est donné par le compteur "nodes".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    private static final int HASH_MB = 16;
+
+    @Param({"4"})
+    public int depth;
+
+    private Board[] boards;
+    private Object transpositionTable;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.nodes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.boards = Positions.boards();
+        this.transpositionTable = Engine.newTranspositionTable(HASH_MB);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        Engine.clear(this.transpositionTable);
+    }
+
+    @Benchmark
+    public long alphaBeta(Nodes counter) {
+        long nodes = 0;
+        for (Board board : this.boards) {
+            nodes += Engine.alphaBeta(board, this.depth, this.transpositionTable);
+        }
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    @Benchmark
+    public long principalVariationSplitting(Nodes counter) {
+        long nodes = 0;
+        for (Board board : this.boards) {
+            nodes += Engine.pvs(board, this.depth, this.transpositionTable);
+        }
+        counter.nodes += nodes;
+        return nodes;
+    }
+}
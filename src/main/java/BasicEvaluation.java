@@ -6,16 +6,17 @@ import static java.lang.Math.min;
 /**
  * Fonction d'évaluation basique
  */
-public class BasicEvaluation {
+public class BasicEvaluation implements Evaluator {
+    public static final BasicEvaluation INSTANCE = new BasicEvaluation();
+
     // Valeurs statiques des pièces
 
-    private static final long PAWN_VALUE = 100L;
-    private static final long KNIGHT_VALUE = 315L;
-    private static final long BISHOP_VALUE = 320L;
-    private static final long ROOK_VALUE = 500L;
-    private static final long QUEEN_VALUE = 900L;
-    private static final long MATE_VALUE = 39000L;
-    private static final long MAX_VALUE = 40000L;
+    private static final int PAWN_VALUE = 100;
+    private static final int KNIGHT_VALUE = 315;
+    private static final int BISHOP_VALUE = 320;
+    private static final int ROOK_VALUE = 500;
+    private static final int QUEEN_VALUE = 900;
+    private static final int MATE_VALUE = 39000;
 
     // Valeur maximale du matériel en jeu
     private static final long MAX_MATERIAL = PAWN_VALUE * 8 + KNIGHT_VALUE * 2 + BISHOP_VALUE * 2 + ROOK_VALUE * 2 + QUEEN_VALUE;
@@ -105,25 +106,32 @@ public class BasicEvaluation {
      * Calcule le score des deux joueurs basé sur la valeur des pièces
      *
      * @param b : etat du jeu actuel
-     * @return double : score de l'heuristique (>0 avantage blanc, <0 avantage noir, =0 : egal)
+     * @return int : score de l'heuristique (>0 avantage blanc, <0 avantage noir, =0 : egal)
      */
-    public static double evaluate(Board b) {
-        if (b.isDraw()) {
-            // If draw return 0
-            return 0.0;
-        } else if (b.isMated() && (b.getSideToMove() == Side.WHITE)) {
-            // if mate and white to play then -inf
-            return -MAX_VALUE;
-        } else if (b.isMated() && (b.getSideToMove() != Side.WHITE)) {
-            //if mate and black to play then +inf
-            return MAX_VALUE;
-        }
+    public static int evaluate(Board b) {
+        return INSTANCE.evaluate(b, EvalAccumulator.compute(b));
+    }
+
+    /**
+     * Calcule le score des deux joueurs à partir des accumulateurs de la position (mis à jour pendant la recherche).
+     * Les nuls et les mats sont détectés par la recherche (Node).
+     *
+     * @param b : etat du jeu actuel
+     * @param acc : accumulateurs de la position (EvalAccumulator)
+     * @return int : score de l'heuristique (>0 avantage blanc, <0 avantage noir, =0 : egal)
+     */
+    @Override
+    public int evaluate(Board b, int[] acc) {
+        long materialSide = scoreMaterial(acc, Side.WHITE); // White material
+        long materialOtherSide = scoreMaterial(acc, Side.BLACK); // Black material
+        long scorePieceSquares = scorePieceSquare(acc); // Score positionnel (white - black)
 
-        long materialSide = scoreMaterial(b, Side.WHITE); // White material
-        long materialOtherSide = scoreMaterial(b, Side.BLACK); // Black material
-        long scorePieceSquares = scorePieceSquare(b); // Score positionnel (white - black)
+        return (int) ((materialSide - materialOtherSide) + scorePieceSquares);
+    }
 
-        return (materialSide - materialOtherSide) + scorePieceSquares;
+    @Override
+    public String getName() {
+        return "Basic";
     }
 
     /**
@@ -132,7 +140,7 @@ public class BasicEvaluation {
      * @param p : Piece
      * @return Valeur matérielle de la pièce
      */
-    public static long getPieceValue(Piece p) {
+    public static int getPieceValue(Piece p) {
         switch (p.getPieceType()) {
             case PAWN -> {
                 return PAWN_VALUE;
@@ -153,7 +161,7 @@ public class BasicEvaluation {
                 return MATE_VALUE;
             }
             default -> {
-                return 0L;
+                return 0;
             }
         }
     }
@@ -165,7 +173,7 @@ public class BasicEvaluation {
      * @param s : Case sur laquelle se trouve la pièce
      * @return Score positionnel associé à la Pièce p sur la case s
      */
-    public static long getSquareValue(Piece p, Square s) {
+    public static int getSquareValue(Piece p, Square s) {
         switch (p.getPieceType()) {
             case PAWN -> {
                 return PawnTable[getPSTIndex(p.getPieceSide(), s)];
@@ -186,42 +194,28 @@ public class BasicEvaluation {
                 return KingEndingTable[getPSTIndex(p.getPieceSide(), s)];
             }
             default -> {
-                return 0L;
+                return 0;
             }
         }
     }
 
-    private static long scoreMaterial(Board b, Side s) {
-        return countPieces(b, s) - countPieces(b, s.flip()); // Différence matérielle
+    private static long scoreMaterial(int[] acc, Side s) {
+        return countPieces(acc, s) - countPieces(acc, s.flip()); // Différence matérielle
     }
 
-    private static long scorePieceSquare(Board b) { // Différence positionelle
-        return calculatePieceSquare(b, Side.WHITE, scoreMaterial(b, Side.WHITE)) -
-                calculatePieceSquare(b, Side.BLACK, scoreMaterial(b, Side.BLACK));
+    private static long scorePieceSquare(int[] acc) { // Différence positionelle
+        return calculatePieceSquare(acc, Side.WHITE, scoreMaterial(acc, Side.WHITE)) -
+                calculatePieceSquare(acc, Side.BLACK, scoreMaterial(acc, Side.BLACK));
     }
 
-    private static long calculatePieceSquare(Board b, Side sideToMove, Long materialSide) {
+    private static long calculatePieceSquare(int[] acc, Side sideToMove, long materialSide) {
         long phase = min(MAX_MATERIAL, materialSide);
-        long somme = 0L;
-
-        long pieces = b.getBitboard(sideToMove) & ~ b.getBitboard(Piece.make(sideToMove, PieceType.KING));
-
-        while (pieces != 0L) {
-            // Scan Forward pour trouver l'index Least Significant 1 Bit
-            int index = Bitboard.bitScanForward(pieces);
-
-            // Extraction du Least Significant Bit
-            pieces = Bitboard.extractLsb(pieces);
-
-            Square sq = Square.squareAt(index); // Récupère la case échiquéenne
-            somme += getSquareValue(b.getPiece(sq), sq); // PST score
-        }
+        long somme = acc[EvalAccumulator.BASIC_PST + sideToMove.ordinal()]; // PST score (hors roi)
 
         // Mini phase / tap evaluation faire évoluer les recompenses du roi en EndGame
-        for (Square sq : b.getPieceLocation(Piece.make(sideToMove, PieceType.KING))) {
-            somme += (MAX_MATERIAL - phase) * KingOpeningTable[getPSTIndex(sideToMove, sq)] /
-                    MAX_MATERIAL + phase * KingEndingTable[getPSTIndex(sideToMove, sq)] / MAX_MATERIAL;
-        }
+        int king = getPSTIndex(sideToMove, acc[EvalAccumulator.KING + sideToMove.ordinal()]);
+        somme += (MAX_MATERIAL - phase) * KingOpeningTable[king] /
+                MAX_MATERIAL + phase * KingEndingTable[king] / MAX_MATERIAL;
         return somme;
     }
 
@@ -233,7 +227,11 @@ public class BasicEvaluation {
      * @return int : index dans la Piece Square Table
      */
     private static int getPSTIndex(Side side, Square sq) {
-        return (side == Side.BLACK) ? sq.ordinal() : 63 - sq.ordinal();
+        return getPSTIndex(side, sq.ordinal());
+    }
+
+    private static int getPSTIndex(Side side, int sq) {
+        return (side == Side.BLACK) ? sq : 63 - sq;
     }
 
     /**
@@ -251,5 +249,20 @@ public class BasicEvaluation {
                 bitCount(b.getBitboard(Piece.make(s, PieceType.QUEEN))) * QUEEN_VALUE);
     }
 
+    /**
+     * Score matériel du joueur s lu dans les accumulateurs
+     *
+     * @param acc : Accumulateurs de la position
+     * @param s : Joueur actuel
+     * @return long : score matériel du joueur
+     */
+    public static long countPieces(int[] acc, Side s) {
+        return EvalAccumulator.count(acc, s, PieceType.PAWN) * PAWN_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.BISHOP) * BISHOP_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.KNIGHT) * KNIGHT_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.ROOK) * ROOK_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.QUEEN) * QUEEN_VALUE;
+    }
+
 }
 
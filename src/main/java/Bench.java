@@ -0,0 +1,73 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+
+/**
+ * Commande "bench" : recherche à profondeur fixe d'une suite de positions, sur un seul thread et avec une table de
+ * transpositions vidée avant chaque position. Le nombre de noeuds ne dépend que du code de la recherche : il sert
+ * de signature pour vérifier qu'une version cherche à l'identique, et le NPS permet de comparer les JVM et machines.
+ * Les mêmes positions sont utilisées par les benchmarks JMH (src/jmh/java).
+ */
+public class Bench {
+    public static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP1B1PPP/R2QKB1R w KQ - 0 8",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1",
+            "3r1rk1/pp3pp1/2p1bq1p/4p3/2P1P3/1P1Q1N2/P4PPP/3RR1K1 w - - 0 20",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "8/8/4k3/3p4/3P4/4K3/8/8 w - - 0 1",
+    };
+    public static final int DEFAULT_DEPTH = 4;
+    private static final int HASH_MB = 16;
+
+    /**
+     * Lance le bench et affiche le nombre total de noeuds, le temps écoulé et le NPS
+     *
+     * @param depth : Profondeur de recherche de chaque position
+     * @return long : Nombre total de noeuds explorés
+     */
+    public static long run(int depth) {
+        // La recherche partage ses noeuds avec les threads inactifs de la pool : on la réduit à un thread et on y
+        // lance le bench, ce thread étant occupé aucun split point n'est créé
+        int threads = SearchPool.getThreads();
+        SearchPool.setThreads(1);
+        try {
+            long start = System.nanoTime();
+            long nodes = SearchPool.getPool().submit(() -> searchAll(depth)).join();
+            long elapsed = Math.max(1L, (System.nanoTime() - start) / 1_000_000L);
+
+            System.out.println("===========================");
+            System.out.println("Total time (ms) : " + elapsed);
+            System.out.println("Nodes searched  : " + nodes);
+            System.out.println("Nodes/second    : " + nodes * 1000L / elapsed);
+            return nodes;
+        } finally {
+            SearchPool.setThreads(threads);
+        }
+    }
+
+    private static long searchAll(int depth) {
+        TranspositionTable transpositionTable = new TranspositionTable(HASH_MB);
+        Stop stop = new Stop(); // Jamais arrêtée : chaque recherche va jusqu'à la profondeur demandée
+        long nodes = 0;
+
+        for (int i = 0; i < POSITIONS.length; i++) {
+            Board board = new Board();
+            board.loadFromFen(POSITIONS[i]);
+            boolean white = board.getSideToMove() == Side.WHITE;
+            transpositionTable.clear();
+            SearchStack.newGame(); // Killers et historique effacés : le résultat ne dépend pas des positions précédentes
+
+            long positionNodes = 0;
+            for (int d = 1; d <= depth; d++) { // Approfondissement itératif, comme pour "go"
+                Node root = new Node(board, d, white, null, -Node.INFINITY, Node.INFINITY, stop, transpositionTable);
+                root.alphaBetaCutOff(board, d, -Node.INFINITY, Node.INFINITY, white);
+                positionNodes += root.getNodesExplored();
+            }
+            System.out.println("Position " + (i + 1) + "/" + POSITIONS.length + " : " + positionNodes + " nodes");
+            nodes += positionNodes;
+        }
+        return nodes;
+    }
+}
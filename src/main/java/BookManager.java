@@ -0,0 +1,123 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Livres d'ouvertures Polyglot classés par priorité : une position est cherchée dans le premier livre qui la
+ * contient. Le coup est choisi parmi toutes les entrées de la position, soit le plus joué (option "Best"), soit au
+ * hasard proportionnellement aux poids (option "Weighted"). Les positions déjà consultées pendant la partie sont
+ * gardées en mémoire.
+ */
+public class BookManager {
+    static final String DEFAULT_BOOKS = "book.bin";
+    static final String BOOK_SEPARATOR = ";"; // Option UCI "Book File" : livres séparés par ";" par priorité
+    static final String SELECTION_BEST = "Best";
+    static final String SELECTION_WEIGHTED = "Weighted";
+
+    /**
+     * Coups du livre pour une position
+     * @param moves : coups légaux trouvés
+     * @param weights : poids de chaque coup
+     * @param totalWeight : somme des poids
+     */
+    private record Candidates(List<Move> moves, int[] weights, long totalWeight) {}
+
+    private static final Candidates NONE = new Candidates(List.of(), new int[0], 0);
+
+    private final List<openingBook> books = new ArrayList<>();
+    private final Map<Long, Candidates> cache = new HashMap<>(); // Positions déjà consultées (partie en cours)
+    private boolean weighted = false;
+
+    public BookManager() {
+        setBooks(DEFAULT_BOOKS);
+    }
+
+    /**
+     * Remplace les livres utilisés
+     *
+     * @param bookNames : Chemins ou ressources séparés par ";" du plus prioritaire au moins prioritaire
+     */
+    public synchronized void setBooks(String bookNames) {
+        this.books.clear();
+        this.cache.clear();
+
+        for (String name : bookNames.split(BOOK_SEPARATOR)) {
+            if (name.isBlank())
+                continue;
+
+            openingBook book = new openingBook(name.trim());
+            if (book.isLoaded())
+                this.books.add(book);
+            else
+                System.out.println("info string opening book not found : " + name.trim());
+        }
+    }
+
+    /**
+     * @param selection : "Best" (coup le plus joué) ou "Weighted" (tirage pondéré)
+     */
+    public synchronized void setSelection(String selection) {
+        this.weighted = SELECTION_WEIGHTED.equalsIgnoreCase(selection);
+    }
+
+    /**
+     * Nouvelle partie : les positions consultées ne sont plus utiles
+     */
+    public synchronized void newGame() {
+        this.cache.clear();
+    }
+
+    /**
+     * Choisit un coup du livre pour la position
+     *
+     * @param board : Position actuelle
+     * @return Move : Coup choisi, null si aucun livre ne contient la position
+     */
+    public synchronized Move getMove(Board board) {
+        long key = PolyglotKey.compute(board);
+        Candidates candidates = this.cache.computeIfAbsent(key, k -> probe(board, k));
+
+        if (candidates.moves().isEmpty())
+            return null;
+        return this.weighted ? selectWeighted(candidates) : selectBest(candidates);
+    }
+
+    private Candidates probe(Board board, long key) {
+        for (openingBook book : this.books) {
+            book.generateMoves(board, key);
+            if (!book.moves.isEmpty()) {
+                return new Candidates(List.copyOf(book.moves), Arrays.copyOf(book.weights, book.moves.size()),
+                        book.totalWeight);
+            }
+        }
+        return NONE;
+    }
+
+    private static Move selectBest(Candidates candidates) {
+        int best = 0;
+        for (int i = 1; i < candidates.weights().length; i++) {
+            if (candidates.weights()[i] > candidates.weights()[best])
+                best = i;
+        }
+        return candidates.moves().get(best);
+    }
+
+    private static Move selectWeighted(Candidates candidates) {
+        if (candidates.totalWeight() <= 0) // Poids tous nuls : tirage uniforme
+            return candidates.moves().get(ThreadLocalRandom.current().nextInt(candidates.moves().size()));
+
+        long r = ThreadLocalRandom.current().nextLong(candidates.totalWeight());
+        for (int i = 0; i < candidates.weights().length; i++) {
+            r -= candidates.weights()[i];
+            if (r < 0)
+                return candidates.moves().get(i);
+        }
+        return candidates.moves().get(candidates.moves().size() - 1);
+    }
+}
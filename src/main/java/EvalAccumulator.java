@@ -0,0 +1,149 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.Arrays;
+
+/**
+ * Accumulateurs de l'évaluation : nombre de pièces, sommes des PST (hors roi) de chaque camp, case des rois et clé
+ * Zobrist des pions (table des pions).
+ * Ils sont mis à jour coup par coup pendant la recherche (SearchStack.doMove) : une évaluation à une feuille ne
+ * demande alors que quelques additions au lieu d'un parcours complet du plateau.
+ * Un accumulateur est un simple int[SIZE] (un par ply dans SearchStack, copié puis modifié à chaque coup).
+ */
+public class EvalAccumulator {
+    static final int COUNT = 0; // Nombre de pièces, indexé par Piece.ordinal() (12 cases)
+    static final int BASIC_PST = 12; // Somme des PST de BasicEvaluation, + Side.ordinal()
+    static final int TAPERED_PST = 14; // Somme des PST de TaperedEvaluation, + Side.ordinal()
+    static final int KING = 16; // Case du roi, + Side.ordinal()
+    static final int PAWN_KEY = 18; // Clé Zobrist des pions : 32 bits de poids faible puis de poids fort
+    static final int SIZE = 20;
+
+    private static final Piece[] PIECES = Piece.values();
+    private static final Square[] SQUARES = Square.values();
+
+    // Valeur PST de chaque pièce sur chaque case, précalculée à partir des tables des évaluations
+    private static final int[][] BASIC_VALUES = new int[PIECES.length][64];
+    private static final int[][] TAPERED_VALUES = new int[PIECES.length][64];
+
+    static {
+        for (Piece piece : PIECES) {
+            if (piece == Piece.NONE || piece.getPieceType() == PieceType.KING)
+                continue;
+            for (int sq = 0; sq < 64; sq++) {
+                BASIC_VALUES[piece.ordinal()][sq] = BasicEvaluation.getSquareValue(piece, SQUARES[sq]);
+                TAPERED_VALUES[piece.ordinal()][sq] = TaperedEvaluation.getSquareValue(piece, SQUARES[sq]);
+            }
+        }
+    }
+
+    /**
+     * @return int[] : Accumulateur calculé entièrement à partir de la position
+     */
+    public static int[] compute(Board board) {
+        int[] acc = new int[SIZE];
+        compute(board, acc);
+        return acc;
+    }
+
+    /**
+     * Calcule entièrement l'accumulateur de la position
+     *
+     * @param board : Position
+     * @param acc : Accumulateur à remplir
+     */
+    public static void compute(Board board, int[] acc) {
+        Arrays.fill(acc, 0);
+        for (Piece piece : PIECES) {
+            if (piece == Piece.NONE)
+                continue;
+
+            long bitboard = board.getBitboard(piece);
+            while (bitboard != 0L) {
+                add(acc, piece, Long.numberOfTrailingZeros(bitboard));
+                bitboard &= bitboard - 1;
+            }
+        }
+    }
+
+    /**
+     * Accumulateur de la position après le coup, à appeler avant board.doMove
+     *
+     * @param board : Position avant le coup
+     * @param move : Coup à jouer
+     * @param from : Accumulateur de la position actuelle
+     * @param to : Accumulateur à remplir
+     */
+    public static void update(Board board, Move move, int[] from, int[] to) {
+        System.arraycopy(from, 0, to, 0, SIZE);
+
+        int origin = move.getFrom().ordinal();
+        int target = move.getTo().ordinal();
+        Piece piece = board.getPiece(move.getFrom());
+        Piece captured = board.getPiece(move.getTo());
+        Piece placed = (move.getPromotion() != null && move.getPromotion() != Piece.NONE) ? move.getPromotion() : piece;
+
+        remove(to, piece, origin);
+        if (captured != Piece.NONE) {
+            remove(to, captured, target);
+        } else if (piece.getPieceType() == PieceType.PAWN && (origin & 7) != (target & 7)) { // Prise en passant
+            remove(to, Piece.make(board.getSideToMove().flip(), PieceType.PAWN), (origin & ~7) | (target & 7));
+        } else if (piece.getPieceType() == PieceType.KING && Math.abs((origin & 7) - (target & 7)) == 2) { // Roque
+            Piece rook = Piece.make(piece.getPieceSide(), PieceType.ROOK);
+            int rank = origin & ~7;
+            boolean kingSide = (target & 7) > (origin & 7);
+            remove(to, rook, kingSide ? rank | 7 : rank);
+            add(to, rook, kingSide ? rank | 5 : rank | 3);
+        }
+        add(to, placed, target);
+    }
+
+    private static void add(int[] acc, Piece piece, int sq) {
+        int side = piece.getPieceSide().ordinal();
+        acc[COUNT + piece.ordinal()]++;
+        if (piece.getPieceType() == PieceType.PAWN) {
+            xorPawnKey(acc, piece, sq);
+        }
+        if (piece.getPieceType() == PieceType.KING) {
+            acc[KING + side] = sq;
+        } else {
+            acc[BASIC_PST + side] += BASIC_VALUES[piece.ordinal()][sq];
+            acc[TAPERED_PST + side] += TAPERED_VALUES[piece.ordinal()][sq];
+        }
+    }
+
+    private static void remove(int[] acc, Piece piece, int sq) {
+        int side = piece.getPieceSide().ordinal();
+        acc[COUNT + piece.ordinal()]--;
+        if (piece.getPieceType() == PieceType.PAWN) {
+            xorPawnKey(acc, piece, sq);
+        }
+        if (piece.getPieceType() != PieceType.KING) {
+            acc[BASIC_PST + side] -= BASIC_VALUES[piece.ordinal()][sq];
+            acc[TAPERED_PST + side] -= TAPERED_VALUES[piece.ordinal()][sq];
+        }
+    }
+
+    private static void xorPawnKey(int[] acc, Piece piece, int sq) {
+        long key = PolyglotKey.pieceKey(piece, sq);
+        acc[PAWN_KEY] ^= (int) key;
+        acc[PAWN_KEY + 1] ^= (int) (key >>> 32);
+    }
+
+    /**
+     * @return long : Clé Zobrist des pions de la position
+     */
+    static long pawnKey(int[] acc) {
+        return (acc[PAWN_KEY] & 0xFFFFFFFFL) | ((long) acc[PAWN_KEY + 1] << 32);
+    }
+
+    /**
+     * @return int : Nombre de pièces de ce type pour ce camp
+     */
+    static int count(int[] acc, Side side, PieceType type) {
+        return acc[COUNT + side.ordinal() * 6 + type.ordinal()];
+    }
+}
@@ -0,0 +1,87 @@
+import com.github.bhlangonijr.chesslib.Board;
+
+import java.util.Arrays;
+
+/**
+ * Cache d'évaluation propre à chaque thread (aucune synchronisation), indexé par la clé Zobrist de la position.
+ * Taille fixe, une entrée par case, toujours remplacée. Une entrée tient dans un long : 32 bits de vérification
+ * de la clé puis le score.
+ * Un seul cache, reconfiguré par les options UCI : les tables des threads sont réutilisées ou libérées au lieu de
+ * rester attachées aux threads de la pool.
+ */
+public class EvalCache implements Evaluator {
+    private static final long[] EMPTY = new long[0];
+
+    private volatile Settings settings;
+    private final ThreadLocal<Table> tables = ThreadLocal.withInitial(Table::new);
+
+    // Evaluation et taille courantes ; chaque changement incrémente la génération
+    private record Settings(Evaluator evaluator, int entries, int generation) {}
+
+    // Table d'un thread et génération des réglages avec lesquels elle a été remplie
+    private static final class Table {
+        private long[] entries = EMPTY;
+        private int generation = -1;
+    }
+
+    /**
+     * @param evaluator : Evaluation dont les résultats sont mis en cache
+     * @param sizeMb : Taille du cache de chaque thread en Mo (0 = pas de cache)
+     */
+    public EvalCache(Evaluator evaluator, int sizeMb) {
+        configure(evaluator, sizeMb);
+    }
+
+    /**
+     * Change l'évaluation ou la taille du cache. Chaque thread vide, réalloue ou libère sa table à sa prochaine
+     * évaluation : les scores de l'ancienne évaluation ne sont jamais réutilisés.
+     *
+     * @param evaluator : Evaluation dont les résultats sont mis en cache
+     * @param sizeMb : Taille du cache de chaque thread en Mo (arrondie à la puissance de 2 inférieure, 0 = pas de cache)
+     */
+    public synchronized void configure(Evaluator evaluator, int sizeMb) {
+        int entries = (sizeMb <= 0) ? 0 :
+                (int) Math.min(1L << 27, Long.highestOneBit(Math.max(1L, (long) sizeMb * 1024 * 1024 / 8)));
+        int generation = (this.settings == null) ? 0 : this.settings.generation() + 1;
+        this.settings = new Settings(evaluator, entries, generation);
+    }
+
+    @Override
+    public int evaluate(Board board, int[] acc) {
+        Settings settings = this.settings;
+        long[] table = getTable(settings);
+        if (table.length == 0)
+            return settings.evaluator().evaluate(board, acc);
+
+        long key = board.getIncrementalHashKey();
+        int index = (int) key & (table.length - 1);
+        long entry = table[index];
+        int check = (int) (key >>> 32);
+
+        if (entry != 0L && (int) (entry >>> 32) == check)
+            return (int) entry;
+
+        int score = settings.evaluator().evaluate(board, acc);
+        table[index] = ((long) check << 32) | (score & 0xFFFFFFFFL);
+        return score;
+    }
+
+    private long[] getTable(Settings settings) {
+        Table table = this.tables.get();
+        if (table.generation != settings.generation()) {
+            if (settings.entries() == 0)
+                table.entries = EMPTY;
+            else if (table.entries.length == settings.entries())
+                Arrays.fill(table.entries, 0L);
+            else
+                table.entries = new long[settings.entries()];
+            table.generation = settings.generation();
+        }
+        return table.entries;
+    }
+
+    @Override
+    public String getName() {
+        return this.settings.evaluator().getName();
+    }
+}
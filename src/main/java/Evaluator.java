@@ -0,0 +1,21 @@
+import com.github.bhlangonijr.chesslib.Board;
+
+/**
+ * Fonction d'évaluation utilisée par la recherche (option UCI "Evaluation")
+ */
+public interface Evaluator {
+
+    /**
+     * Evalue la position, sans détecter les nuls ni les mats (laissés à la recherche)
+     *
+     * @param board : Position actuelle
+     * @param acc : Accumulateurs de la position (EvalAccumulator)
+     * @return int : Evaluation (centipions, >0 avantage blanc)
+     */
+    int evaluate(Board board, int[] acc);
+
+    /**
+     * @return String : Nom de l'évaluation dans l'option UCI
+     */
+    String getName();
+}
@@ -0,0 +1,84 @@
+/**
+ * Evaluation utilisée par les prochaines recherches, choisie par les options UCI "Evaluation", "Eval Cache" et
+ * "EvalFile" (réseau de l'évaluation NNUE)
+ */
+public class Evaluators {
+    static final int CACHE_DEFAULT = 1; // Taille du cache de chaque thread en Mo (0 = pas de cache)
+    static final int CACHE_MIN = 0;
+    static final int CACHE_MAX = 256;
+
+    private static final Evaluator[] EVALUATORS = {BasicEvaluation.INSTANCE, TaperedEvaluation.INSTANCE,
+            NNUEEvaluation.INSTANCE};
+    static final String DEFAULT = BasicEvaluation.INSTANCE.getName();
+
+    private static Evaluator base = BasicEvaluation.INSTANCE;
+    private static int cacheMb = CACHE_DEFAULT;
+    private static String networkFile = NNUEEvaluation.DEFAULT_FILE;
+    private static volatile boolean network = false; // Vrai si les accumulateurs du réseau doivent être tenus à jour
+    private static final EvalCache CACHE = new EvalCache(base, cacheMb); // Aussi utilisé sans cache (taille 0)
+
+    /**
+     * @return Evaluator : Evaluation à utiliser
+     */
+    public static Evaluator get() {
+        return CACHE;
+    }
+
+    /**
+     * @return boolean : Vrai si l'évaluation choisie utilise le réseau (SearchStack met alors à jour ses accumulateurs)
+     */
+    public static boolean usesNetwork() {
+        return network;
+    }
+
+    /**
+     * @return String : Noms des évaluations disponibles pour l'option UCI (" var ... var ...")
+     */
+    public static String getNames() {
+        StringBuilder sb = new StringBuilder();
+        for (Evaluator evaluator : EVALUATORS) {
+            sb.append(" var ").append(evaluator.getName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param name : Nom de l'évaluation (ignoré si inconnu)
+     */
+    public static synchronized void select(String name) {
+        for (Evaluator evaluator : EVALUATORS) {
+            if (evaluator.getName().equalsIgnoreCase(name)) {
+                if (evaluator == NNUEEvaluation.INSTANCE && NNUEEvaluation.INSTANCE.getNetwork() == null
+                        && !NNUEEvaluation.INSTANCE.load(networkFile))
+                    return; // Pas de réseau : on garde l'évaluation actuelle
+                base = evaluator;
+                update();
+                return;
+            }
+        }
+        System.out.println("info string unknown evaluation : " + name);
+    }
+
+    /**
+     * @param sizeMb : Taille du cache de chaque thread en Mo (0 = pas de cache)
+     */
+    public static synchronized void setCacheSize(int sizeMb) {
+        cacheMb = Math.max(CACHE_MIN, Math.min(CACHE_MAX, sizeMb));
+        update();
+    }
+
+    /**
+     * @param name : Fichier du réseau de l'évaluation NNUE (chargé tout de suite si elle est utilisée)
+     */
+    public static synchronized void setNetworkFile(String name) {
+        networkFile = name;
+        if (base == NNUEEvaluation.INSTANCE && NNUEEvaluation.INSTANCE.load(name))
+            update();
+    }
+
+    // Cache vidé à chaque changement : les scores de l'ancienne évaluation ne sont jamais réutilisés
+    private static void update() {
+        network = base == NNUEEvaluation.INSTANCE;
+        CACHE.configure(base, cacheMb);
+    }
+}
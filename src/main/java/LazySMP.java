@@ -0,0 +1,112 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP : alternative au PV splitting. Chaque thread auxiliaire lance son propre approfondissement itératif
+ * sur la position racine, en sautant certaines profondeurs pour que les threads ne recherchent pas tous la même
+ * profondeur au même moment, et ne communique avec les autres threads qu'à travers la table de transpositions
+ * partagée. Les noeuds n'y sont pas partagés en split points (SplitPoint.setEnabled).
+ * Inspiré de : <a href="https://www.chessprogramming.org/Lazy_SMP">...</a>
+ */
+public class LazySMP implements Callable<Integer> {
+
+    // Profondeurs sautées par le index-ième thread auxiliaire : depth est sautée si ((depth + phase) / size) est
+    // impair. Les premiers threads alternent profondeurs paires et impaires, les suivants par blocs plus longs
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final Board board;
+    private final int skipSize;
+    private final int skipPhase;
+    private final int maxDepth;
+    private final Stop stop;
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * @param board : Position racine (copiée par chaque Node)
+     * @param index : Rang du thread auxiliaire (choix des profondeurs sautées)
+     * @param maxDepth : Profondeur maximale
+     * @param stop : Arrêt des threads auxiliaires
+     * @param transpositionTable : Table partagée avec le thread principal
+     */
+    public LazySMP(Board board, int index, int maxDepth, Stop stop, TranspositionTable transpositionTable) {
+        this.board = board.clone();
+        this.skipSize = SKIP_SIZE[index % SKIP_SIZE.length];
+        this.skipPhase = SKIP_PHASE[index % SKIP_PHASE.length];
+        this.maxDepth = maxDepth;
+        this.stop = stop;
+        this.transpositionTable = transpositionTable;
+    }
+
+    /**
+     * Approfondissement itératif jusqu'à l'arrêt demandé par le thread principal
+     *
+     * @return Integer : Nombre de noeuds explorés
+     */
+    @Override
+    public Integer call() {
+        boolean white = this.board.getSideToMove() == Side.WHITE;
+        int nodes = 0;
+
+        for (int depth = 1; depth <= this.maxDepth && !this.stop.getStop(); depth++) {
+            if (((depth + this.skipPhase) / this.skipSize) % 2 != 0) {
+                continue; // Profondeur laissée aux autres threads
+            }
+            Node n = new Node(this.board, depth, white, null, -Node.INFINITY, Node.INFINITY, this.stop,
+                    this.transpositionTable);
+            n.call(); // Le résultat est partagé via la table de transpositions
+            nodes += n.getNodesExplored();
+        }
+        return nodes;
+    }
+
+    /**
+     * Lance les threads auxiliaires dans la pool de la recherche, chacun avec son propre choix de profondeurs
+     *
+     * @param board : Position racine
+     * @param helpers : Nombre de threads auxiliaires
+     * @param maxDepth : Profondeur maximale
+     * @param stop : Arrêt des threads auxiliaires
+     * @param transpositionTable : Table partagée
+     * @return List : Tâches lancées
+     */
+    public static List<Future<Integer>> startHelpers(Board board, int helpers, int maxDepth, Stop stop,
+                                                     TranspositionTable transpositionTable) {
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < helpers; i++) {
+            futures.add(SearchPool.getPool().submit(
+                    new LazySMP(board, i, maxDepth, stop, transpositionTable)));
+        }
+        return futures;
+    }
+
+    /**
+     * Arrête les threads auxiliaires et attend leur fin
+     *
+     * @param futures : Tâches lancées par startHelpers
+     * @param stop : Arrêt des threads auxiliaires
+     * @return long : Nombre total de noeuds explorés par les threads auxiliaires
+     */
+    public static long stopHelpers(List<Future<Integer>> futures, Stop stop) {
+        stop.setTrueStop();
+
+        long nodes = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                nodes += future.get();
+            } catch (CancellationException | ExecutionException e) {
+                // Thread auxiliaire sans résultat
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return nodes;
+    }
+}
@@ -3,151 +3,168 @@
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.move.Move;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-
-import static java.lang.Math.min;
+import static java.lang.Math.max;
 
 // Ce sont les noeuds le plus à gauche de l'arbre à savoir le meilleur move théorique
 public class LeftSideNode {
-    
+
     private final Board board;
-    private final Integer depth;
-    private final Double alpha;
-    private final Double beta;
-    private final Boolean playerToMaximize;
-    private Integer nodesExplored;
+    private final int depth;
+    private final int alpha;
+    private final int beta;
+    private final boolean playerToMaximize;
+    private int nodesExplored;
 
     private Move bestMove;
     private final Stop stop;
+    private final TranspositionTable transpositionTable;
 
-    private final List<Move> children;
-
-    private ExecutorService executor;
+    private final SearchStack stack; // Tampons du thread : le noeud utilise le sélecteur de son ply
+    private final MovePicker picker;
 
-    private Boolean isActive;
-    private LeftSideNode fils;
+    public LeftSideNode(Board board, int depth, int alpha, int beta, boolean playerToMaximise, Stop stop,
+                        TranspositionTable transpositionTable) {
+        this(board, depth, alpha, beta, playerToMaximise, stop, transpositionTable, true);
+    }
 
-    public LeftSideNode(Board board, Integer depth, Double alpha, Double beta, Boolean playerToMaximise, Stop stop) {
+    /**
+     * @param root : Vrai pour la racine de la recherche (clé et accumulateurs calculés), faux pour un fils dont le
+     * coup vient d'être joué par stack.doMove
+     */
+    private LeftSideNode(Board board, int depth, int alpha, int beta, boolean playerToMaximise, Stop stop,
+                         TranspositionTable transpositionTable, boolean root) {
         this.stop = stop;
+        this.transpositionTable = transpositionTable;
         this.board = board;
         this.depth = depth;
         this.playerToMaximize = playerToMaximise;
         this.nodesExplored = 0;
         this.alpha = alpha;
         this.beta = beta;
-        
-        // Récupère les Moves et les tri
-        this.children = this.board.legalMoves();
-        this.children.sort(Comparator.comparingInt((Move m) -> (int) Node.getMoveScore(this.board, m)));
-        Collections.reverse(this.children);
-
-        // Meilleur Move
-        try {
-            this.bestMove = this.children.get(0);
-        } catch (Exception e) {}
-
-        this.isActive = false;
-        this.fils = null;
+        this.stack = SearchStack.get();
+        if (root) {
+            this.stack.setRoot(board);
+        }
+
+        // Coups proposés par étapes comme dans Node, le coup de la table de transpositions devient le noeud le plus
+        // à gauche
+        this.picker = this.stack.getPicker();
+        this.picker.init(board, TranspositionTable.getMoveCode(transpositionTable.probe(board.getIncrementalHashKey(),
+                this.stack.getKey())));
+
+        // Meilleur Move (null si aucun coup légal)
+        this.bestMove = this.picker.next();
     }
 
     public Result PVS() {
         // Node la plus à Gauche
-        if (this.depth == 3 || this.board.isDraw() || this.board.isMated() || this.board.isStaleMate()){
+        if (this.depth <= 3 || this.bestMove == null || Node.isDrawByRule(this.board)) { // Aucun coup : mat ou pat
             Node n = new Node(this.board, this.depth, this.playerToMaximize, this.bestMove, this);
-            return n.alphaBetaCutOff(this.board, this.depth, this.alpha, this.beta, playerToMaximize);
+            int score = n.alphaBetaCutOff(this.board, this.depth, this.alpha, this.beta, playerToMaximize);
+
+            // Coupure par la table : le coup enregistré peut être absent
+            // Recherche interrompue : le meilleur coup partiel dépend du moment de l'arrêt, on garde le premier coup
+            Move move = (n.getBestMove() == null || this.stop.getStop()) ? this.bestMove : n.getBestMove();
+            return new Result(score, move, n.getNodesExplored());
         }
 
         // On trouve le noeud le plus à gauche
         this.incrementNodesCount(1);
-        this.board.doMove(this.bestMove);
-        LeftSideNode fils = new LeftSideNode(this.board, this.depth - 1, this.alpha, this.beta, !this.playerToMaximize, this.stop);
-        this.fils = fils;
+        this.stack.doMove(this.board, this.bestMove);
+        LeftSideNode fils = new LeftSideNode(this.board, this.depth - 1, this.alpha, this.beta, !this.playerToMaximize,
+                this.stop, this.transpositionTable, false);
 
         Result r = fils.PVS();
 
-        Double score = r.num();
+        int score = r.num();
         this.incrementNodesCount(r.nodeExplored());
-        this.board.undoMove();
+        this.stack.undoMove(this.board);
 
-        if (this.stop.getStop() || this.children.size() == 1) {
+        if (this.stop.getStop()) {
             return new Result(score, this.bestMove, this.nodesExplored);
         }
 
-        // Crée une pool de (15) Thread
-        this.executor = Executors.newFixedThreadPool(min(15, this.children.size() - 1));
-        List<Future<Result>> resultList = new ArrayList<>();
-
-        this.isActive = true;
-        
-        // Chacun des noeuds va exécuter Alpha Beta Cut Off
-        for (Move m : this.children.subList(1, this.children.size())) {
-            this.incrementNodesCount(1);
-            board.doMove(m);
-            Node n = new Node(this.board, this.depth - 1, !this.playerToMaximize, m, this);
-            board.undoMove();
-
-            if (this.isActive()) {
-                resultList.add(this.executor.submit(n));
-            } else {
-                break;
+        // Split point et table en negamax : bornes et scores du point de vue du joueur au trait
+        int sign = this.playerToMaximize ? 1 : -1;
+        int alphaOrig = this.playerToMaximize ? this.alpha : -this.beta;
+        int betaOrig = this.playerToMaximize ? this.beta : -this.alpha;
+
+        // Les bornes profitent du score du noeud le plus à gauche
+        int alpha = max(alphaOrig, sign * score);
+
+        Move next = (alpha < betaOrig) ? this.picker.next() : null;
+        boolean inCheck = this.board.isKingAttacked();
+        int count = (next != null && SplitPoint.availableHelpers(SearchStack.MAX_MOVES) > 0) ?
+                this.picker.drainRemaining(next) : 0;
+        int helpers = SplitPoint.availableHelpers(count);
+        if (helpers > 0) {
+            // Les autres fils sont partagés entre ce thread et les threads inactifs de la pool, avec des bornes
+            // mises à jour au fil des résultats
+            SplitPoint sp = new SplitPoint(null, alpha, betaOrig, sign * score, this.bestMove,
+                    this.picker.getSearched(), 1, this.picker.getRemaining(), count, inCheck, false);
+            sp.run(this.board, this.depth, helpers, this.stop, this.transpositionTable);
+            this.incrementNodesCount((int) sp.getNodesExplored());
+
+            if (this.stop.getStop()) {
+                return new Result(score, this.bestMove, this.nodesExplored); // Résultat partiel
             }
-        }
-
-        if (this.isActive()) {
-            // Impossible d'ajouter une tâche à la pool
-            this.executor.shutdown();
-        } 
-
-        if (!this.isActive()) {
-            return new Result(score, this.bestMove, this.nodesExplored);
-        }
-
-        try {        
-            for (Future<Result> future : resultList) {    
-                if (!this.isActive()) {
-                    break;
+            score = sign * sp.getBestScore();
+            this.bestMove = sp.getBestMove();
+        } else if (next != null) {
+            // Aucun thread libre : les autres fils sont recherchés par ce thread, comme dans la boucle de Node
+            if (count > 0) {
+                this.picker.replayRemaining();
+            }
+            Node n = new Node(this.board, this.depth, this.playerToMaximize, next, this.alpha, this.beta, this.stop,
+                    this.transpositionTable, null);
+            int bestScore = sign * score;
+            for (int i = 1; next != null; i++, next = this.picker.next()) {
+                int eval = n.searchMove(this.board, next, i, this.depth, alpha, betaOrig, inCheck, false);
+                if (this.stop.getStop()) {
+                    this.incrementNodesCount(n.getNodesExplored());
+                    return new Result(score, this.bestMove, this.nodesExplored); // Résultat partiel
                 }
-
-                // Attend le résultat 
-                r = future.get();
-
-                this.incrementNodesCount(r.nodeExplored());
-
-                if (playerToMaximize) {
-                    if (score < r.num()) {
-                        score = r.num();
-                        this.bestMove = r.bestMove();
-                    }
-                } else {
-                    if (r.num() < score){
-                        score = r.num();
-                        this.bestMove = r.bestMove();
+                if (eval > bestScore) {
+                    bestScore = eval;
+                    this.bestMove = next;
+                }
+                alpha = max(alpha, bestScore);
+                if (alpha >= betaOrig) {
+                    if (Node.isQuiet(this.board, next)) {
+                        this.stack.updateQuietStats(this.board, next, this.depth, this.picker.getSearched(), i);
                     }
+                    break; // Coupure
                 }
             }
-        } catch (InterruptedException | ExecutionException e) {
-            e.printStackTrace();
+            this.incrementNodesCount(n.getNodesExplored());
+            score = sign * bestScore;
+        }
+
+        if (!this.stop.getStop()) { // Résultat complet : partagé avec les autres threads
+            this.transpositionTable.store(this.board.getIncrementalHashKey(), this.stack.getKey(),
+                    this.depth, sign * score, TranspositionTable.getType(sign * score, alphaOrig, betaOrig),
+                    this.bestMove);
         }
-        this.isActive = false;
 
         return new Result(score, this.bestMove, this.nodesExplored);
     }
 
-    public Double getAlpha() {
+    public int getAlpha() {
         return this.alpha;
     }
 
-    public Double getBeta() {
+    public int getBeta() {
         return this.beta;
     }
 
+    public Stop getStop() {
+        return this.stop;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return this.transpositionTable;
+    }
+
     private void incrementNodesCount(int nb) {
         this.nodesExplored += nb;
     }
@@ -160,20 +177,4 @@ public class LeftSideNode {
     public Move getBestMove() {
         return this.bestMove;
     }
-
-    public boolean isActive() {
-        return this.isActive;
-    }
-
-    // Timer Friendly
-    public void stopAllThread() {
-        if (this.fils != null && this.fils.isActive()) {
-            this.fils.stopAllThread();
-        }
-
-        if (this.isActive) {
-            this.isActive = false;
-            this.executor.shutdownNow();
-        }
-    }
-}
+}
\ No newline at end of file
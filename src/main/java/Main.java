@@ -2,7 +2,12 @@
 
 public class Main {
     // Protocole UCI : communication avec ARENA
+    // "java -jar chess_uci.jar bench [depth]" : lance le bench puis quitte
     public static void main(String[] args) {
+        if (args.length > 0 && "bench".equals(args[0])) {
+            UCI.inputBench(String.join(" ", args));
+            return;
+        }
         UCI.uciCommunication();
     }
 
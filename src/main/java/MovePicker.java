@@ -0,0 +1,307 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.List;
+
+/**
+ * Sélection des coups par étapes, sans générer ni trier plus que nécessaire : la plupart des coupures ont lieu sur
+ * le premier ou le deuxième coup.
+ * 1. coup de la table de transpositions (sans génération)
+ * 2. captures gagnantes ou égales (SEE >= 0), par MVV-LVA
+ * 3. coups calmes : killers, countermove puis historique (SearchStack.getQuietScore)
+ * 4. captures perdantes
+ * A chaque étape le meilleur coup restant est choisi au moment où il est demandé (tri par sélection partiel).
+ * En quiescence, une seule étape : captures (prises en passant comprises) et promotions en dame, par MVV-LVA.
+ * Un sélecteur par ply dans SearchStack : tampons alloués une seule fois.
+ */
+public class MovePicker {
+    private static final int TT_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int GENERATE_QUIETS = 3;
+    private static final int QUIETS = 4;
+    private static final int BAD_CAPTURES = 5;
+    private static final int QUIESCENCE_CAPTURES = 6;
+    private static final int REMAINING = 7; // Coups vidés par drainRemaining puis rendus à la recherche
+    private static final int DONE = 8;
+
+    private static final Square[] SQUARES = Square.values();
+    private static final Piece[] PIECES = Piece.values();
+    private static final long RANK_2 = 0x000000000000FF00L;
+    private static final long RANK_7 = 0x00FF000000000000L;
+
+    private final SearchStack stack;
+    private final Move[] moves = new Move[SearchStack.MAX_MOVES]; // Captures puis coups calmes
+    private final int[] scores = new int[SearchStack.MAX_MOVES];
+    private final Move[] searched = new Move[SearchStack.MAX_MOVES]; // Coups rendus, dans l'ordre
+    private final Move[] remaining = new Move[SearchStack.MAX_MOVES]; // Coups restants (split point)
+
+    private Board board;
+    private int stage;
+    private int ttMoveCode;
+    private int captureIndex; // Prochaine capture
+    private int captureEnd;
+    private int quietIndex; // Prochain coup calme
+    private int end;
+    private int searchedCount;
+    private int remainingIndex; // Prochain coup de remaining (étape REMAINING)
+    private int remainingCount;
+
+    MovePicker(SearchStack stack) {
+        this.stack = stack;
+    }
+
+    /**
+     * Prépare la sélection de tous les coups légaux
+     *
+     * @param board : Position actuelle
+     * @param ttMoveCode : Coup de la table de transpositions (encodé, 0 si aucun)
+     */
+    public void init(Board board, int ttMoveCode) {
+        this.board = board;
+        this.ttMoveCode = ttMoveCode;
+        this.stage = (ttMoveCode != 0) ? TT_MOVE : GENERATE_CAPTURES;
+        this.searchedCount = 0;
+    }
+
+    /**
+     * Prépare la sélection des captures légales et des promotions en dame, par MVV-LVA (quiescence)
+     *
+     * @param board : Position actuelle
+     */
+    public void initCaptures(Board board) {
+        this.board = board;
+        this.ttMoveCode = 0;
+        this.searchedCount = 0;
+        generateCaptures(true);
+        this.stage = QUIESCENCE_CAPTURES;
+    }
+
+    /**
+     * @return Move : Prochain coup à rechercher, null s'il n'en reste plus
+     */
+    public Move next() {
+        Move move = nextMove();
+        if (move != null)
+            this.searched[this.searchedCount++] = move;
+        return move;
+    }
+
+    private Move nextMove() {
+        while (true) {
+            switch (this.stage) {
+                case TT_MOVE -> {
+                    this.stage = GENERATE_CAPTURES;
+                    Move move = decodeTTMove();
+                    if (move != null)
+                        return move;
+                    this.ttMoveCode = 0;
+                }
+                case GENERATE_CAPTURES -> {
+                    generateCaptures(false);
+                    this.stage = GOOD_CAPTURES;
+                }
+                case GOOD_CAPTURES -> {
+                    if (this.captureIndex < this.captureEnd) {
+                        select(this.captureIndex, this.captureEnd);
+                        if (this.scores[this.captureIndex] >= 0) // Les captures perdantes attendent la fin
+                            return this.moves[this.captureIndex++];
+                    }
+                    this.stage = GENERATE_QUIETS;
+                }
+                case GENERATE_QUIETS -> {
+                    generateQuiets();
+                    this.stage = QUIETS;
+                }
+                case QUIETS -> {
+                    if (this.quietIndex < this.end) {
+                        select(this.quietIndex, this.end);
+                        return this.moves[this.quietIndex++];
+                    }
+                    this.stage = BAD_CAPTURES;
+                }
+                case BAD_CAPTURES, QUIESCENCE_CAPTURES -> {
+                    if (this.captureIndex < this.captureEnd) {
+                        select(this.captureIndex, this.captureEnd);
+                        return this.moves[this.captureIndex++];
+                    }
+                    this.stage = DONE;
+                }
+                case REMAINING -> {
+                    if (this.remainingIndex < this.remainingCount)
+                        return this.remaining[this.remainingIndex++];
+                    this.stage = DONE;
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Coup de la table : l'entrée a été vérifiée par deux clés de 64 bits indépendantes (chesslib et Polyglot), le
+     * coup a donc été trouvé dans cette position. On vérifie seulement qu'il ne laisse pas le roi en échec.
+     */
+    private Move decodeTTMove() {
+        Square from = SQUARES[this.ttMoveCode & 0x3F];
+        Square to = SQUARES[(this.ttMoveCode >>> 6) & 0x3F];
+        Piece piece = this.board.getPiece(from);
+        if (piece == Piece.NONE || piece.getPieceSide() != this.board.getSideToMove())
+            return null;
+        Piece target = this.board.getPiece(to);
+        if (target != Piece.NONE && target.getPieceSide() == piece.getPieceSide())
+            return null;
+
+        Move move = new Move(from, to, PIECES[(this.ttMoveCode >>> 12) & 0xF]);
+        return this.board.isMoveLegal(move, false) ? move : null;
+    }
+
+    /**
+     * Captures légales d'une pièce. Hors quiescence, les prises en passant (case d'arrivée vide) sont avec les coups
+     * calmes ; en quiescence elles sont gardées, les sous-promotions écartées et les promotions en dame sans capture
+     * ajoutées.
+     *
+     * @param quiescence : Vrai pour la quiescence, triée par MVV-LVA seul (la SEE y sert à l'élagage)
+     */
+    private void generateCaptures(boolean quiescence) {
+        List<Move> captures = this.board.pseudoLegalCaptures();
+        int count = 0;
+        for (int i = 0; i < captures.size(); i++) {
+            Move move = captures.get(i);
+            if (quiescence ? !isQueenPromotionOrNone(move) : this.board.getPiece(move.getTo()) == Piece.NONE)
+                continue;
+            if (isTTMove(move) || !this.board.isMoveLegal(move, false))
+                continue;
+
+            this.moves[count] = move;
+            this.scores[count] = quiescence ? Node.getMvvLvaScore(this.board, move) :
+                    Node.getMoveScore(this.board, move);
+            count++;
+        }
+        if (quiescence)
+            count = addQueenPromotions(count);
+        this.captureIndex = 0;
+        this.captureEnd = count;
+    }
+
+    private static boolean isQueenPromotionOrNone(Move move) {
+        return move.getPromotion() == Piece.NONE || move.getPromotion().getPieceType() == PieceType.QUEEN;
+    }
+
+    /**
+     * Promotions en dame sans capture (pion sur la septième rangée, case suivante vide), classées comme la capture
+     * d'une dame
+     *
+     * @param count : Nombre de coups déjà générés
+     * @return int : Nouveau nombre de coups
+     */
+    private int addQueenPromotions(int count) {
+        Side side = this.board.getSideToMove();
+        long pawns = this.board.getBitboard(Piece.make(side, PieceType.PAWN));
+        long empty = ~this.board.getBitboard();
+        long promoting = (side == Side.WHITE) ? pawns & RANK_7 & (empty >>> 8) : pawns & RANK_2 & (empty << 8);
+        Piece queen = Piece.make(side, PieceType.QUEEN);
+
+        while (promoting != 0L) {
+            int from = Long.numberOfTrailingZeros(promoting);
+            promoting &= promoting - 1;
+            Move move = new Move(SQUARES[from], SQUARES[(side == Side.WHITE) ? from + 8 : from - 8], queen);
+            if (!this.board.isMoveLegal(move, false))
+                continue;
+
+            this.moves[count] = move;
+            this.scores[count] = BasicEvaluation.getPieceValue(queen) * 16;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Coups légaux vers une case vide, placés après les captures
+     */
+    private void generateQuiets() {
+        List<Move> pseudoLegalMoves = this.board.pseudoLegalMoves();
+        int count = this.captureEnd;
+        for (int i = 0; i < pseudoLegalMoves.size(); i++) {
+            Move move = pseudoLegalMoves.get(i);
+            if (this.board.getPiece(move.getTo()) != Piece.NONE || isTTMove(move)
+                    || !this.board.isMoveLegal(move, false))
+                continue;
+
+            this.moves[count] = move;
+            this.scores[count] = this.stack.getQuietScore(this.board, move);
+            count++;
+        }
+        this.quietIndex = this.captureEnd;
+        this.end = count;
+    }
+
+    private boolean isTTMove(Move move) {
+        return this.ttMoveCode != 0 && TranspositionTable.encodeMove(move) == this.ttMoveCode;
+    }
+
+    /**
+     * Place le coup de meilleur score de [from, to) en from
+     */
+    private void select(int from, int to) {
+        int best = from;
+        for (int i = from + 1; i < to; i++) {
+            if (this.scores[i] > this.scores[best])
+                best = i;
+        }
+        if (best != from) {
+            Move move = this.moves[best];
+            this.moves[best] = this.moves[from];
+            this.moves[from] = move;
+            int score = this.scores[best];
+            this.scores[best] = this.scores[from];
+            this.scores[from] = score;
+        }
+    }
+
+    /**
+     * Vide le sélecteur pour partager les coups restants (split point)
+     *
+     * @param current : Coup déjà rendu par next() et pas encore recherché, placé en premier
+     * @return int : Nombre de coups dans getRemaining()
+     */
+    public int drainRemaining(Move current) {
+        int count = 0;
+        this.remaining[count++] = current;
+        Move move;
+        while ((move = nextMove()) != null) {
+            this.remaining[count++] = move;
+        }
+        this.remainingCount = count;
+        return count;
+    }
+
+    /**
+     * Annule drainRemaining lorsqu'aucun thread ne peut partager les coups : next() rend à nouveau les coups restants,
+     * dans le même ordre, à partir de celui qui suit le coup courant
+     */
+    public void replayRemaining() {
+        this.remainingIndex = 1;
+        this.stage = REMAINING;
+    }
+
+    public Move[] getRemaining() {
+        return this.remaining;
+    }
+
+    /**
+     * @return Move[] : Coups rendus par next(), dans l'ordre
+     */
+    public Move[] getSearched() {
+        return this.searched;
+    }
+
+    public int getSearchedCount() {
+        return this.searchedCount;
+    }
+}
@@ -0,0 +1,64 @@
+import com.github.bhlangonijr.chesslib.Board;
+
+/**
+ * Evaluation par le réseau chargé depuis l'option UCI "EvalFile" (voir Network).
+ * Pendant la recherche, quiescence comprise, l'accumulateur du réseau est celui du ply courant de SearchStack, mis à
+ * jour coup par coup par SearchStack.doMove ; il n'est recalculé que pour une position évaluée hors de la recherche
+ * (appels directs, benchmarks).
+ */
+public class NNUEEvaluation implements Evaluator {
+    public static final NNUEEvaluation INSTANCE = new NNUEEvaluation();
+    static final String DEFAULT_FILE = "nnue.bin";
+
+    private volatile Network network;
+    private final ThreadLocal<short[]> scratch = ThreadLocal.withInitial(() -> new short[0]);
+
+    private NNUEEvaluation() {}
+
+    /**
+     * Charge le réseau, l'ancien est gardé si le fichier est introuvable ou invalide
+     *
+     * @param name : Chemin du fichier ou nom d'une ressource du classpath
+     * @return boolean : Vrai si le réseau a été chargé
+     */
+    public synchronized boolean load(String name) {
+        Network loaded = Network.load(name);
+        if (loaded == null) {
+            System.out.println("info string network not found or invalid : " + name);
+            return false;
+        }
+        this.network = loaded;
+        System.out.println("info string network " + name + " loaded (" + Network.getMathName() + ")");
+        return true;
+    }
+
+    /**
+     * @return Network : Réseau chargé, null si aucun
+     */
+    public Network getNetwork() {
+        return this.network;
+    }
+
+    @Override
+    public int evaluate(Board board, int[] acc) {
+        Network net = this.network;
+        SearchStack stack = SearchStack.get();
+
+        // Position du ply courant de la recherche : accumulateur à jour
+        if (stack.getAccumulator() == acc && stack.getNetwork() == net)
+            return net.evaluate(stack.getNetworkAccumulator(), board.getSideToMove());
+
+        short[] accumulator = this.scratch.get();
+        if (accumulator.length != net.getAccumulatorSize()) {
+            accumulator = new short[net.getAccumulatorSize()];
+            this.scratch.set(accumulator);
+        }
+        net.refresh(board, accumulator);
+        return net.evaluate(accumulator, board.getSideToMove());
+    }
+
+    @Override
+    public String getName() {
+        return "NNUE";
+    }
+}
@@ -0,0 +1,223 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+/**
+ * Réseau d'évaluation efficacement mis à jour (NNUE) : 768 entrées (pièce x case, vues par chaque camp) -> couche
+ * cachée de taille HIDDEN par perspective -> une sortie.
+ * L'accumulateur (short[2 * HIDDEN] : perspective blanche puis noire) contient la couche cachée avant activation :
+ * un coup n'active ou ne désactive que quelques entrées, il est donc mis à jour par quelques additions de colonnes de
+ * poids (SearchStack.doMove) au lieu d'être recalculé.
+ * Poids quantifiés : entrées et biais de la couche cachée multipliés par QA, sortie par QB.
+ * Format du fichier (little endian) : "NNUE" | version (int, 1) | HIDDEN (int) | poids des entrées
+ * (short[768 * HIDDEN], entrée par entrée) | biais cachés (short[HIDDEN]) | poids de sortie (short[2 * HIDDEN], camp
+ * au trait puis adversaire) | biais de sortie (int).
+ */
+public class Network {
+    static final int INPUTS = 768;
+    private static final int MAGIC = 0x45554E4E; // "NNUE" lu en little endian
+    private static final int VERSION = 1;
+    private static final int QA = 255;
+    private static final int QB = 64;
+    private static final int SCALE = 400; // Sortie du réseau -> centipions
+
+    private static final Piece[] PIECES = Piece.values();
+    private static final NetworkMath MATH = NetworkMath.create();
+
+    private final String name;
+    private final int hidden;
+    private final short[] inputWeights;
+    private final short[] hiddenBias;
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    private Network(String name, int hidden, short[] inputWeights, short[] hiddenBias, short[] outputWeights,
+                    int outputBias) {
+        this.name = name;
+        this.hidden = hidden;
+        this.inputWeights = inputWeights;
+        this.hiddenBias = hiddenBias;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Charge un réseau depuis un fichier, ou depuis une ressource du classpath
+     *
+     * @param name : Chemin ou nom de la ressource
+     * @return Network : Réseau chargé, null si le fichier est introuvable ou invalide
+     */
+    public static Network load(String name) {
+        byte[] bytes = read(name);
+        if (bytes == null)
+            return null;
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return null;
+
+            int hidden = buffer.getInt();
+            if (hidden <= 0 || hidden > 4096)
+                return null;
+
+            short[] inputWeights = new short[INPUTS * hidden];
+            short[] hiddenBias = new short[hidden];
+            short[] outputWeights = new short[2 * hidden];
+            buffer.asShortBuffer().get(inputWeights);
+            buffer.position(buffer.position() + 2 * inputWeights.length);
+            buffer.asShortBuffer().get(hiddenBias);
+            buffer.position(buffer.position() + 2 * hiddenBias.length);
+            buffer.asShortBuffer().get(outputWeights);
+            buffer.position(buffer.position() + 2 * outputWeights.length);
+            int outputBias = buffer.getInt();
+
+            return new Network(name, hidden, inputWeights, hiddenBias, outputWeights, outputBias);
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static byte[] read(String name) {
+        try {
+            Path path = Path.of(name);
+            if (Files.isRegularFile(path))
+                return Files.readAllBytes(path);
+        } catch (IOException | InvalidPathException e) {
+            // on essaie le classpath
+        }
+
+        try (InputStream is = Network.class.getResourceAsStream(name)) {
+            return (is == null) ? null : is.readAllBytes();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return int : Taille d'un accumulateur (deux perspectives)
+     */
+    public int getAccumulatorSize() {
+        return 2 * this.hidden;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return String : Implémentation des calculs (vectorielle ou scalaire)
+     */
+    public static String getMathName() {
+        return MATH.getName();
+    }
+
+    /**
+     * Index du début des poids d'une entrée : pièces du camp de la perspective puis pièces adverses, cases vues du
+     * côté de la perspective (retournées verticalement pour les noirs)
+     */
+    private int weightIndex(Side perspective, Piece piece, int sq) {
+        int kind = piece.getPieceType().ordinal() + (piece.getPieceSide() == perspective ? 0 : 6);
+        int square = (perspective == Side.WHITE) ? sq : sq ^ 56;
+        return (kind * 64 + square) * this.hidden;
+    }
+
+    /**
+     * Calcule entièrement l'accumulateur de la position
+     *
+     * @param board : Position
+     * @param acc : Accumulateur à remplir (getAccumulatorSize())
+     */
+    public void refresh(Board board, short[] acc) {
+        System.arraycopy(this.hiddenBias, 0, acc, 0, this.hidden);
+        System.arraycopy(this.hiddenBias, 0, acc, this.hidden, this.hidden);
+        for (Piece piece : PIECES) {
+            if (piece == Piece.NONE)
+                continue;
+
+            long bitboard = board.getBitboard(piece);
+            while (bitboard != 0L) {
+                int sq = Long.numberOfTrailingZeros(bitboard);
+                MATH.add(acc, 0, this.inputWeights, weightIndex(Side.WHITE, piece, sq), this.hidden);
+                MATH.add(acc, this.hidden, this.inputWeights, weightIndex(Side.BLACK, piece, sq), this.hidden);
+                bitboard &= bitboard - 1;
+            }
+        }
+    }
+
+    /**
+     * Accumulateur de la position après le coup, à appeler avant board.doMove
+     *
+     * @param board : Position avant le coup
+     * @param move : Coup à jouer
+     * @param from : Accumulateur de la position actuelle
+     * @param to : Accumulateur à remplir
+     */
+    public void update(Board board, Move move, short[] from, short[] to) {
+        int origin = move.getFrom().ordinal();
+        int target = move.getTo().ordinal();
+        Piece piece = board.getPiece(move.getFrom());
+        Piece captured = board.getPiece(move.getTo());
+        Piece placed = (move.getPromotion() != null && move.getPromotion() != Piece.NONE) ? move.getPromotion() : piece;
+
+        // Déplacement de la pièce : copie et mise à jour en un seul passage
+        updatePerspective(Side.WHITE, 0, from, to, placed, target, piece, origin);
+        updatePerspective(Side.BLACK, this.hidden, from, to, placed, target, piece, origin);
+
+        if (captured != Piece.NONE) {
+            remove(to, captured, target);
+        } else if (piece.getPieceType() == PieceType.PAWN && (origin & 7) != (target & 7)) { // Prise en passant
+            remove(to, Piece.make(board.getSideToMove().flip(), PieceType.PAWN), (origin & ~7) | (target & 7));
+        } else if (piece.getPieceType() == PieceType.KING && Math.abs((origin & 7) - (target & 7)) == 2) { // Roque
+            Piece rook = Piece.make(piece.getPieceSide(), PieceType.ROOK);
+            int rank = origin & ~7;
+            boolean kingSide = (target & 7) > (origin & 7);
+            remove(to, rook, kingSide ? rank | 7 : rank);
+            add(to, rook, kingSide ? rank | 5 : rank | 3);
+        }
+    }
+
+    private void updatePerspective(Side perspective, int offset, short[] from, short[] to, Piece added, int addedSq,
+                                   Piece removed, int removedSq) {
+        MATH.addSub(from, to, offset, this.inputWeights, weightIndex(perspective, added, addedSq),
+                weightIndex(perspective, removed, removedSq), this.hidden);
+    }
+
+    private void add(short[] acc, Piece piece, int sq) {
+        MATH.add(acc, 0, this.inputWeights, weightIndex(Side.WHITE, piece, sq), this.hidden);
+        MATH.add(acc, this.hidden, this.inputWeights, weightIndex(Side.BLACK, piece, sq), this.hidden);
+    }
+
+    private void remove(short[] acc, Piece piece, int sq) {
+        MATH.sub(acc, 0, this.inputWeights, weightIndex(Side.WHITE, piece, sq), this.hidden);
+        MATH.sub(acc, this.hidden, this.inputWeights, weightIndex(Side.BLACK, piece, sq), this.hidden);
+    }
+
+    /**
+     * Sortie du réseau
+     *
+     * @param acc : Accumulateur de la position
+     * @param sideToMove : Camp au trait
+     * @return int : Evaluation en centipions du point de vue des blancs
+     */
+    public int evaluate(short[] acc, Side sideToMove) {
+        int us = (sideToMove == Side.WHITE) ? 0 : this.hidden;
+        int them = this.hidden - us;
+        long output = MATH.activate(acc, us, this.outputWeights, 0, this.hidden, QA)
+                + MATH.activate(acc, them, this.outputWeights, this.hidden, this.hidden, QA)
+                + (long) this.outputBias;
+        int score = (int) (output * SCALE / ((long) QA * QB));
+        return (sideToMove == Side.WHITE) ? score : -score;
+    }
+}
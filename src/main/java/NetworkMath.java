@@ -0,0 +1,60 @@
+/**
+ * Opérations du réseau (NNUE) sur les accumulateurs et les poids quantifiés (short).
+ * Deux implémentations : VectorNetworkMath (API Vector du JDK, instructions SIMD de la machine) et
+ * ScalarNetworkMath, utilisée si le module jdk.incubator.vector n'est pas disponible au lancement.
+ */
+public interface NetworkMath {
+
+    /**
+     * to[offset + i] = from[offset + i] + weights[added + i] - weights[removed + i] (coup sans prise)
+     *
+     * @param from : Accumulateur de la position avant le coup
+     * @param to : Accumulateur à remplir
+     * @param offset : Début de la perspective dans les accumulateurs
+     * @param weights : Poids des entrées
+     * @param added : Début des poids de l'entrée activée
+     * @param removed : Début des poids de l'entrée désactivée
+     * @param length : Taille de la couche cachée
+     */
+    void addSub(short[] from, short[] to, int offset, short[] weights, int added, int removed, int length);
+
+    /**
+     * acc[offset + i] += weights[weight + i]
+     */
+    void add(short[] acc, int offset, short[] weights, int weight, int length);
+
+    /**
+     * acc[offset + i] -= weights[weight + i]
+     */
+    void sub(short[] acc, int offset, short[] weights, int weight, int length);
+
+    /**
+     * Produit scalaire de l'accumulateur borné entre 0 et max (clipped ReLU) avec les poids de sortie
+     *
+     * @param acc : Accumulateur
+     * @param offset : Début de la perspective dans l'accumulateur
+     * @param weights : Poids de la couche de sortie
+     * @param weight : Début des poids de cette perspective
+     * @param length : Taille de la couche cachée
+     * @param max : Borne supérieure de l'activation
+     * @return int : Somme des produits
+     */
+    int activate(short[] acc, int offset, short[] weights, int weight, int length, int max);
+
+    /**
+     * @return String : Nom de l'implémentation (affiché au chargement du réseau)
+     */
+    String getName();
+
+    /**
+     * @return NetworkMath : Implémentation vectorielle si le module jdk.incubator.vector est chargé, scalaire sinon
+     */
+    static NetworkMath create() {
+        try {
+            // Chargée par réflexion : sans le module, seule cette classe est inutilisable
+            return (NetworkMath) Class.forName("VectorNetworkMath").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarNetworkMath();
+        }
+    }
+}
@@ -1,12 +1,11 @@
 /* Basic Node Class. */
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
 import java.util.concurrent.Callable;
 
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
 import com.github.bhlangonijr.chesslib.move.Move;
 
 import static java.lang.Math.max;
@@ -15,149 +14,457 @@ import static java.lang.Math.min;
 // Le reste de l'arbre
 public class Node implements Callable<Result> {
 
+    public static final int INFINITY = 100_000; // Borne des fenêtres de recherche (au-delà de toute évaluation)
+    private static final int MATE_VALUE = 39_000; // Score du joueur mat (négatif pour lui)
+    static final int PRUNED = -INFINITY - 1; // searchMove : coup élagué, non recherché
+
     private final Board board;
-    private final Integer depth;
-    private final Boolean playerToMaximize;
-    private final double alpha;
-    private final double beta;
+    private final int depth;
+    private final boolean playerToMaximize;
+    private final int alpha;
+    private final int beta;
 
     private final Move move;
-    private Integer nodesExplored;
+    private int nodesExplored;
+    private Move bestMove; // Meilleur coup trouvé à la racine de ce noeud
+
+    private final TranspositionTable transpositionTable;
+    private final Stop stop;
+    private final SplitPoint splitPoint; // Split point auquel appartient ce noeud (null si aucun)
+    private final SearchStack stack; // Tampons du thread qui exécute ce noeud
+    private final int rootPly; // Ply de la racine de ce noeud dans les tampons du thread
+    private final Evaluator evaluator; // Evaluation choisie par l'option UCI "Evaluation"
+    private final boolean nullMove; // Options de sélectivité (Selectivity)
+    private final boolean lateMoveReductions;
+    private final boolean futility;
+
+    // Profondeur restante minimale pour partager les fils d'un noeud avec les threads inactifs
+    private static final int SPLIT_MIN_DEPTH = 3;
+    // Marge de l'élagage delta : gain positionnel espéré en plus du matériel capturé
+    private static final int DELTA_MARGIN = 200;
+    // Tri des coups : captures gagnantes ou égales (SEE >= 0) avant les promotions et les coups calmes, captures
+    // perdantes après
+    private static final int GOOD_CAPTURE = 10_000;
+    private static final int BAD_CAPTURE = -10_000;
+
+    // Null move pruning : réduction 2 + depth / 4, à partir de cette profondeur
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    // Late move reductions : coups calmes à partir du LMR_MIN_MOVES-ième, réduction ln(depth) * ln(index) / 2.25
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3;
+    private static final int[][] REDUCTIONS = new int[64][SearchStack.MAX_MOVES];
+    // Futility : marge par ply restant, jusqu'à FUTILITY_MAX_DEPTH
+    private static final int FUTILITY_MAX_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 120;
+
+    static {
+        for (int d = 1; d < REDUCTIONS.length; d++) {
+            for (int i = 1; i < SearchStack.MAX_MOVES; i++) {
+                REDUCTIONS[d][i] = (int) (0.75 + Math.log(d) * Math.log(i) / 2.25);
+            }
+        }
+    }
 
-    public Node(Board board, Integer depth, Boolean playerToMaximise, Move move, LeftSideNode parent) {
-        this.board = board.clone();
+    public Node(Board board, int depth, boolean playerToMaximise, Move move, LeftSideNode parent) {
+        this(board, depth, playerToMaximise, move, parent.getAlpha(), parent.getBeta(), parent.getStop(),
+                parent.getTranspositionTable(), null);
+    }
+
+    /**
+     * Racine d'une recherche : copie du plateau, clé et accumulateurs recalculés dans les tampons du thread
+     */
+    public Node(Board board, int depth, boolean playerToMaximise, Move move, int alpha, int beta, Stop stop,
+                TranspositionTable transpositionTable) {
+        this(board.clone(), depth, playerToMaximise, move, alpha, beta, stop, transpositionTable, null);
+        this.stack.setRoot(board);
+    }
+
+    /**
+     * Noeud d'un split point ou de LeftSideNode : le plateau du thread n'est pas copié et la pile est déjà à
+     * jour (clé, accumulateurs, coup précédent pour les countermoves) ; le ply courant devient la racine du noeud
+     */
+    public Node(Board board, int depth, boolean playerToMaximise, Move move, int alpha, int beta, Stop stop,
+                TranspositionTable transpositionTable, SplitPoint splitPoint) {
+        this.board = board;
         this.depth = depth;
         this.playerToMaximize = playerToMaximise;
         this.nodesExplored = 0;
         this.move = move;
-
-        this.alpha = parent.getAlpha();
-        this.beta = parent.getBeta();
+        this.bestMove = null;
+
+        this.alpha = alpha;
+        this.beta = beta;
+        this.stop = stop;
+        this.transpositionTable = transpositionTable;
+        this.splitPoint = splitPoint;
+        this.stack = SearchStack.get();
+        this.stack.readStop(stop);
+        this.evaluator = Evaluators.get();
+        this.nullMove = Selectivity.isNullMove();
+        this.lateMoveReductions = Selectivity.isLateMoveReductions();
+        this.futility = Selectivity.isFutility();
+        this.rootPly = this.stack.getPly();
     }
 
     /**
-     * Minimax à profondeur limitée avec élagage alpha beta "sans faille" (fail-soft)
+     * Recherche depuis une position, scores du point de vue des blancs (LeftSideNode, UCI, bench)
      *
      * @param board : Position de jeu actuelle
      * @param depth : Profondeur restante de recherche
      * @param alpha : Borne alpha pour élagage
      * @param beta : Borne beta pour élagage
      * @param playerToMaximize : Booléen (Vrai = BLanc, Noir sinon)
-     * @return : Record (Evaluation, bestMove, NodesExplored)
+     * @return int : Evaluation (centipions, > 0 avantage blanc)
      */
-    public Result alphaBetaCutOff(Board board, Integer depth, Double alpha, Double beta, Boolean playerToMaximize) {
-        // Si feuille ou cas terminal
-        if (depth == 0 || board.isDraw() || board.isMated() || board.isStaleMate()) {
-            // Possibilité de modifier l'appel ci-dessous pour utiliser la Tapered Evaluation ou Quiescent Search
-            return new Result(BasicEvaluation.evaluate(board), null, 0);
-        } 
-
-        // Génère la liste des mouvements possibles
-        List<Move> children = board.legalMoves();
-
-        // Trie du mouvement le plus intéressant au moins intéressant
-        children.sort(Comparator.comparingInt((Move m) -> (int) getMoveScore(board, m)));
-        Collections.reverse(children);
+    public int alphaBetaCutOff(Board board, int depth, int alpha, int beta, boolean playerToMaximize) {
+        return playerToMaximize ? search(board, depth, alpha, beta) : -search(board, depth, -beta, -alpha);
+    }
 
-        Move bestMove = children.get(0); // Récupère un move au cas où il y a un problème plus bas
+    /**
+     * Principal variation search en negamax, fail-soft : le premier coup est recherché avec la fenêtre complète,
+     * les suivants avec une fenêtre nulle (alpha, alpha + 1) qui suffit à montrer qu'ils ne sont pas meilleurs ; un
+     * coup qui la dépasse est recherché à nouveau avec la fenêtre complète.
+     * Aucune allocation dans la boucle : scores entiers, coups proposés par le sélecteur du ply (SearchStack).
+     * Le meilleur coup de la racine est disponible ensuite via getBestMove().
+     *
+     * @param board : Position de jeu actuelle
+     * @param depth : Profondeur restante de recherche
+     * @param alpha : Borne alpha pour élagage
+     * @param beta : Borne beta pour élagage
+     * @return int : Evaluation (centipions) du point de vue du joueur au trait
+     */
+    public int search(Board board, int depth, int alpha, int beta) {
+        // Recherche arrêtée : le résultat sera ignoré
+        if (isStopped()) {
+            return 0;
+        }
 
-        if (playerToMaximize) { // If White
-            Double maxEval = alpha;
+        // Si cas terminal : nul par règle ou profondeur maximale des tampons (mat et pat : aucun coup, après la boucle)
+        if (isDrawByRule(board)) {
+            return 0;
+        }
+        if (this.stack.getPly() >= SearchStack.MAX_PLY - 1) {
+            return evaluate(board);
+        }
 
-            for (Move move : children) {
-                incrementNodesCount(); // MAJ du nombre de noeuds
+        // Si feuille : captures jusqu'à une position calme
+        if (depth <= 0) {
+            return QuiescentSearch(board, alpha, beta);
+        }
 
-                board.doMove(move); // On effectue le coup directement sur le board (pas de copie)
+        boolean root = this.stack.getPly() == this.rootPly;
+        boolean pvNode = beta - alpha > 1; // Fenêtre nulle : il suffit de savoir de quel côté est le score
 
-                double currentEval = alphaBetaCutOff(board, depth - 1, alpha, beta, false).num();
-                board.undoMove(); // On annule le coup
+        // Position déjà recherchée à une profondeur suffisante (par ce thread ou un autre)
+        long hashKey = board.getIncrementalHashKey();
+        long lockKey = this.stack.getKey(); // Clé Polyglot, indépendante de celle de chesslib
+        long entry = this.transpositionTable.probe(hashKey, lockKey);
+        if (TranspositionTable.isCutOff(entry, depth, alpha, beta)) {
+            if (root) {
+                this.bestMove = TranspositionTable.getMove(entry);
+            }
+            return TranspositionTable.getScore(entry);
+        }
 
-                if (maxEval < currentEval) { // Maj de l'eval + move
-                    maxEval = currentEval;
-                    bestMove = move;
+        // Sélectivité, hors échec et hors variation principale : l'évaluation statique est déjà au-delà de la fenêtre
+        boolean inCheck = board.isKingAttacked();
+        boolean futile = false; // Coups calmes élaguables (futility pruning)
+        if (!inCheck && !pvNode && !root && (this.futility || this.nullMove)) {
+            int staticEval = evaluate(board);
+
+            if (this.futility && depth <= FUTILITY_MAX_DEPTH) {
+                int margin = FUTILITY_MARGIN * depth;
+                // Reverse futility : même en perdant la marge, le score reste au-dessus de beta
+                if (staticEval - margin >= beta) {
+                    return staticEval - margin;
                 }
+                // Futility : même en gagnant la marge, un coup calme ne ramène pas le score au-dessus d'alpha
+                futile = staticEval + margin <= alpha;
+            }
 
-                alpha = max(alpha, maxEval);
+            // Null move : passer le trait suffit à dépasser beta, jouer un coup ferait encore mieux.
+            // Pas deux coups nuls de suite, ni sans pièce autre que les pions (zugzwang)
+            if (this.nullMove && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta && !this.stack.isAfterNullMove()
+                    && hasPieces(board.getSideToMove())) {
+                this.stack.doNullMove(board);
+                int score = -search(board, depth - 1 - (2 + depth / 4), -beta, -beta + 1);
+                this.stack.undoMove(board);
 
-                if (beta <= alpha) {
-                    break; // Beta cut off
+                if (isStopped()) {
+                    return beta; // Résultat ignoré
+                }
+                if (score >= beta) {
+                    return beta; // Le score du coup nul (mats compris) n'est pas fiable : on renvoie la borne
                 }
             }
+        }
 
-            return new Result(maxEval, bestMove, this.nodesExplored);
+        // Coups proposés par étapes, du plus intéressant au moins intéressant, le coup de la table en premier
+        MovePicker picker = this.stack.getPicker();
+        picker.init(board, TranspositionTable.getMoveCode(entry));
+
+        Move bestMove = null; // Premier coup, au cas où aucun ne dépasse alpha
+        int alphaOrig = alpha;
+        int bestEval = alpha;
+
+        Move move;
+        for (int i = 0; (move = picker.next()) != null; i++) {
+            // Young Brothers Wait : le premier fils est recherché seul, les suivants peuvent être partagés
+            if (i == 1 && depth >= SPLIT_MIN_DEPTH && SplitPoint.availableHelpers(SearchStack.MAX_MOVES) > 0) {
+                int count = picker.drainRemaining(move);
+                int helpers = SplitPoint.availableHelpers(count);
+                if (helpers > 0) {
+                    SplitPoint sp = new SplitPoint(this.splitPoint, alpha, beta, bestEval, bestMove,
+                            picker.getSearched(), i, picker.getRemaining(), count, inCheck, futile);
+                    sp.run(board, depth, helpers, this.stop, this.transpositionTable);
+                    this.nodesExplored += (int) sp.getNodesExplored();
+
+                    if (isStoppedNow()) {
+                        return bestEval; // Résultat partiel, non enregistré
+                    }
+                    bestEval = sp.getBestScore();
+                    bestMove = sp.getBestMove();
+                    break;
+                }
+                picker.replayRemaining(); // Plus de thread libre ou un seul coup : le thread les recherche seul
+            }
 
-        } else { // Black player
-            Double minEval = beta;
+            if (i == 0) {
+                bestMove = move;
+            }
 
-            for (Move move : children) {
-                incrementNodesCount(); // MAJ du nombre de noeuds
+            int currentEval = searchMove(board, move, i, depth, alpha, beta, inCheck, futile);
+            if (currentEval == PRUNED) {
+                continue; // Futility pruning
+            }
 
-                board.doMove(move); // On effectue le coup directement sur le board (pas de copie)
-                double currentEval = alphaBetaCutOff(board, depth - 1, alpha, beta, true).num();
-                board.undoMove(); // On annule le coup
+            if (isStopped()) {
+                return bestEval; // Résultat partiel, non enregistré
+            }
 
-                if (currentEval < minEval) { // MAJ de l'eval + move
-                    minEval = currentEval;
-                    bestMove = move;
-                }
+            if (currentEval > bestEval) { // Maj de l'eval + move
+                bestEval = currentEval;
+                bestMove = move;
+            }
 
-                beta = min(beta, minEval);
+            alpha = max(alpha, bestEval);
 
-                if (beta <= alpha) {
-                    break; // Alpha cut off
+            if (alpha >= beta) {
+                if (isQuiet(board, move)) {
+                    this.stack.updateQuietStats(board, move, depth, picker.getSearched(), i);
                 }
+                break; // Coupure
             }
+        }
 
-            return new Result(minEval, bestMove, this.nodesExplored);
+        if (picker.getSearchedCount() == 0) {
+            return inCheck ? -MATE_VALUE : 0; // Aucun coup légal : mat ou pat
         }
+        if (isStoppedNow()) {
+            return bestEval; // Résultat partiel, non enregistré
+        }
+        this.transpositionTable.store(hashKey, lockKey, depth, bestEval,
+                TranspositionTable.getType(bestEval, alphaOrig, beta), bestMove);
+        if (root) {
+            this.bestMove = bestMove;
+        }
+        return bestEval;
     }
 
     /**
-     * Effectue les coups capturants afin d'évaluer une position dite calme ou discrète
+     * Recherche le index-ième coup d'un noeud, pour la boucle de search comme pour un split point : futility
+     * pruning des coups calmes, fenêtre complète pour le premier coup, fenêtre nulle (réduite pour les coups
+     * tardifs) pour les suivants puis recherches complètes si le coup dépasse alpha
+     *
+     * @param board : Position du noeud (le coup est joué puis annulé)
+     * @param move : Coup à rechercher
+     * @param index : Rang du coup dans le noeud
+     * @param depth : Profondeur restante du noeud
+     * @param alpha : Borne alpha du noeud
+     * @param beta : Borne beta du noeud
+     * @param inCheck : Vrai si le joueur au trait est en échec
+     * @param futile : Vrai si les coups calmes sans échec peuvent être élagués
+     * @return int : Score du coup du point de vue du joueur au trait, PRUNED si le coup est élagué
+     */
+    int searchMove(Board board, Move move, int index, int depth, int alpha, int beta, boolean inCheck,
+                   boolean futile) {
+        boolean quiet = isQuiet(board, move);
+
+        this.stack.doMove(board, move); // On effectue le coup directement sur le board (pas de copie)
+        boolean givesCheck = board.isKingAttacked();
+        if (futile && index > 0 && quiet && !givesCheck) {
+            this.stack.undoMove(board);
+            return PRUNED;
+        }
+        incrementNodesCount(); // MAJ du nombre de noeuds
+
+        int eval;
+        if (index == 0) {
+            eval = -search(board, depth - 1, -beta, -alpha);
+        } else {
+            int reduction = (this.lateMoveReductions && quiet && !inCheck && !givesCheck
+                    && depth >= LMR_MIN_DEPTH && index >= LMR_MIN_MOVES) ? getReduction(depth, index) : 0;
+
+            // Fenêtre nulle, réduite pour les coups tardifs, puis recherches complètes si le coup dépasse alpha
+            eval = -search(board, depth - 1 - reduction, -alpha - 1, -alpha);
+            if (eval > alpha && reduction > 0) {
+                eval = -search(board, depth - 1, -alpha - 1, -alpha);
+            }
+            if (eval > alpha && eval < beta) {
+                eval = -search(board, depth - 1, -beta, -alpha);
+            }
+        }
+        this.stack.undoMove(board); // On annule le coup
+        return eval;
+    }
+
+    /**
+     * @return int : Evaluation statique du point de vue du joueur au trait
+     */
+    private int evaluate(Board board) {
+        int eval = this.evaluator.evaluate(board, this.stack.getAccumulator());
+        return (board.getSideToMove() == Side.WHITE) ? eval : -eval;
+    }
+
+    /**
+     * Recherche de quiescence (negamax, fail-soft) : effectue les captures afin d'évaluer une position calme.
+     * Le joueur au trait peut s'arrêter sur l'évaluation statique (stand pat), sauf en échec où toutes les parades
+     * sont recherchées. Captures (prises en passant comprises) et promotions en dame triées MVV-LVA ; les captures
+     * sans promotion qui ne peuvent pas ramener le score au-dessus d'alpha, même en gagnant la pièce capturée plus
+     * DELTA_MARGIN, sont élaguées (delta pruning), ainsi que celles qui perdent du matériel (SEE < 0).
      *
      * @param b : Position de jeu actuelle
      * @param alpha : Borne alpha pour élagage
      * @param beta : Borne beta pour élagage
-     * @return double : Evaluation de la position
+     * @return int : Evaluation de la position du point de vue du joueur au trait
      */
-    public double QuiescentSearch(Board b, Double alpha, Double beta)
+    public int QuiescentSearch(Board b, int alpha, int beta)
     {
-        double eval = BasicEvaluation.evaluate(b);
+        if (isStopped())
+            return 0;
+
+        boolean inCheck = b.isKingAttacked();
+        if (this.stack.getPly() >= SearchStack.MAX_PLY - 1)
+            return evaluate(b);
+
+        int standPat = -INFINITY;
+        if (!inCheck) {
+            standPat = evaluate(b);
+            if (standPat >= beta)
+                return standPat;
+            alpha = max(alpha, standPat);
+        }
+
+        MovePicker picker = this.stack.getPicker();
+        if (inCheck)
+            picker.init(b, 0);
+        else
+            picker.initCaptures(b);
+
+        int best = standPat;
+        Move move;
+        while ((move = picker.next()) != null) {
+            if (!inCheck && move.getPromotion() == Piece.NONE
+                    && standPat + getCaptureValue(b, move) + DELTA_MARGIN <= alpha)
+                continue; // Delta pruning
+            if (!inCheck && move.getPromotion() == Piece.NONE && StaticExchange.see(b, move) < 0)
+                continue; // Capture perdante
+
+            incrementNodesCount();
+            this.stack.doMove(b, move);
+            int eval = -QuiescentSearch(b, -beta, -alpha); // On inverse le signe qui s'annule automatiquement 1 fois sur 2
+            this.stack.undoMove(b);
+
+            if (isStopped())
+                return best;
+
+            if (eval > best) {
+                best = eval;
+                alpha = max(alpha, eval);
+                if (alpha >= beta)
+                    break;
+            }
+        }
+        if (inCheck && picker.getSearchedCount() == 0) // Mat
+            return -MATE_VALUE;
+        return best;
+    }
+
+    /**
+     * @return int : Valeur de la pièce capturée par le coup (pion pour une prise en passant)
+     */
+    static int getCaptureValue(Board b, Move move) {
+        Piece captured = b.getPiece(move.getTo());
+        return BasicEvaluation.getPieceValue((captured != Piece.NONE) ? captured : Piece.WHITE_PAWN);
+    }
 
-        if (eval >= beta)
-            return beta;
-        if (eval > alpha)
-            return alpha;
+    /**
+     * Most Valuable Victim - Least Valuable Attacker : les captures de grosses pièces par de petites en premier
+     *
+     * @param b : Etat du jeu actuel
+     * @param move : Capture
+     * @return int : Score de tri de la capture
+     */
+    static int getMvvLvaScore(Board b, Move move) {
+        return getCaptureValue(b, move) * 16 - BasicEvaluation.getPieceValue(b.getPiece(move.getFrom())) / 100;
+    }
 
-        List<Move> captureMoves = b.pseudoLegalCaptures(); // Coups capturant
-        for (Move move : captureMoves)
-        {
-            b.doMove(move);
-            eval = -QuiescentSearch(b, -beta, -alpha); // On inverse le signe qui s'annule automatiquement 1 fois sur 2
-            b.undoMove();
+    /**
+     * @return int : Réduction LMR du index-ième coup, la recherche réduite garde au moins un ply
+     */
+    private static int getReduction(int depth, int index) {
+        int reduction = REDUCTIONS[min(depth, REDUCTIONS.length - 1)][min(index, SearchStack.MAX_MOVES - 1)];
+        return min(reduction, depth - 2);
+    }
 
-            if (eval >= beta)
-                return beta;
-            if (eval > alpha)
-                alpha = eval;
-        }
-        return alpha;
+    /**
+     * Nul par répétition, règle des 50 coups ou matériel insuffisant, sans générer les coups (le pat est détecté par
+     * la recherche, lorsqu'aucun coup n'est proposé)
+     *
+     * @param b : Position actuelle
+     * @return boolean : Vrai si la position est nulle
+     */
+    static boolean isDrawByRule(Board b) {
+        return b.getHalfMoveCounter() >= 100 || b.isInsufficientMaterial() || b.isRepetition();
+    }
+
+    /**
+     * @return boolean : Vrai si le camp a au moins une pièce autre que le roi et les pions
+     */
+    private boolean hasPieces(Side side) {
+        int[] acc = this.stack.getAccumulator();
+        return EvalAccumulator.count(acc, side, PieceType.KNIGHT) + EvalAccumulator.count(acc, side, PieceType.BISHOP)
+                + EvalAccumulator.count(acc, side, PieceType.ROOK)
+                + EvalAccumulator.count(acc, side, PieceType.QUEEN) > 0;
+    }
+
+    /**
+     * @return boolean : Vrai si le coup n'est ni une capture (prise en passant comprise) ni une promotion
+     */
+    static boolean isQuiet(Board b, Move move) {
+        if (b.getPiece(move.getTo()) != Piece.NONE || move.getPromotion() != Piece.NONE)
+            return false;
+        Piece piece = b.getPiece(move.getFrom());
+        return piece.getPieceType() != PieceType.PAWN || move.getFrom().getFile() == move.getTo().getFile();
     }
 
     /**
-     * Evalue un coup en fonction de la pièce attaquée, de la promotion ou de la position finale de la pièce
+     * Evalue un coup en fonction du bilan de la capture (SEE puis MVV-LVA), de la promotion ou de la position finale
+     * de la pièce
      *
      * @param b : Etat du jeu actuel
      * @param move : Coup qui va potentiellement être joué
-     * @return long : Score associé au coup
+     * @return int : Score associé au coup
      */
-    public static long getMoveScore(Board b, Move move)
+    public static int getMoveScore(Board b, Move move)
     {
         Piece attackedPiece = b.getPiece(move.getTo());
         Piece attackingPiece = b.getPiece(move.getFrom());
 
-        if (attackedPiece != Piece.NONE)
-            return BasicEvaluation.getPieceValue(attackedPiece);
+        if (attackedPiece != Piece.NONE) {
+            int see = StaticExchange.see(b, move);
+            return (see >= 0) ? GOOD_CAPTURE + getMvvLvaScore(b, move) : BAD_CAPTURE + see;
+        }
         if (move.getPromotion() != Piece.NONE)
             return BasicEvaluation.getPieceValue(move.getPromotion());
 
@@ -165,18 +472,42 @@ public class Node implements Callable<Result> {
 
     }
 
+    /**
+     * @return boolean : Vrai si la recherche est arrêtée (constaté à la dernière vérification du thread, voir
+     * SearchStack.countNode) ou si un frère d'un split point englobant a trouvé une coupure
+     */
+    private boolean isStopped() {
+        return this.stack.isStopped() || (this.splitPoint != null && this.splitPoint.isAborted());
+    }
+
+    /**
+     * @return boolean : Comme isStopped, avec l'arrêt relu immédiatement : à utiliser quand le thread n'a peut-être
+     * pas vérifié l'arrêt récemment (retour d'un split point, avant d'écrire dans la table)
+     */
+    private boolean isStoppedNow() {
+        return this.stack.readStop(this.stop) || (this.splitPoint != null && this.splitPoint.isAborted());
+    }
+
     private void incrementNodesCount() {
         this.nodesExplored++; // MAJ nombre de noeuds explorés
+        this.stack.countNode(this.stop);
     }
 
-    public Integer getNodesExplored() {
+    public int getNodesExplored() {
         return this.nodesExplored;
     }
 
+    /**
+     * @return Move : Meilleur coup trouvé à la racine de ce noeud (null si coupure par la table sans coup)
+     */
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
     @Override
     public Result call() {
-        Result r = this.alphaBetaCutOff(this.board, this.depth, this.alpha, this.beta, this.playerToMaximize);
+        int score = this.alphaBetaCutOff(this.board, this.depth, this.alpha, this.beta, this.playerToMaximize);
 
-        return new Result(r.num(), this.move, this.nodesExplored);
+        return new Result(score, this.move, this.nodesExplored);
     }
 }
@@ -0,0 +1,78 @@
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Table des structures de pions propre à chaque thread, indexée par la clé Zobrist des seuls pions.
+ * La structure change rarement d'un noeud à son frère : la plupart des évaluations la retrouvent dans la table.
+ * Le taux de réussite de toutes les tables est affiché à la fin de chaque recherche : chaque table compte ses
+ * consultations sans synchronisation, les compteurs de toutes les tables sont additionnés au moment de l'affichage.
+ */
+public class PawnHashTable {
+    private static final int SIZE = 1 << 14; // Entrées par thread (puissance de 2)
+
+    private static final ThreadLocal<PawnHashTable> TABLES = ThreadLocal.withInitial(PawnHashTable::new);
+    private static final Queue<PawnHashTable> ALL_TABLES = new ConcurrentLinkedQueue<>(); // Pour les statistiques
+
+    private final long[] keys = new long[SIZE];
+    private final int[] scores = new int[SIZE];
+    private final boolean[] filled = new boolean[SIZE];
+    private final Thread owner; // Seul thread à écrire dans la table et ses compteurs
+    private long probes;
+    private long hits;
+
+    private PawnHashTable() {
+        this.owner = Thread.currentThread();
+        ALL_TABLES.add(this);
+    }
+
+    /**
+     * Score de structure (PawnStructure.evaluate) de la position, lu dans la table du thread ou calculé
+     *
+     * @param pawnKey : Clé Zobrist des pions
+     * @param whitePawns : Bitboard des pions blancs
+     * @param blackPawns : Bitboard des pions noirs
+     * @return int : Score (ouverture, finale)
+     */
+    public static int probe(long pawnKey, long whitePawns, long blackPawns) {
+        PawnHashTable table = TABLES.get();
+        int index = (int) pawnKey & (SIZE - 1);
+        table.probes++;
+
+        if (table.filled[index] && table.keys[index] == pawnKey) {
+            table.hits++;
+            return table.scores[index];
+        }
+
+        int score = PawnStructure.evaluate(whitePawns, blackPawns);
+        table.keys[index] = pawnKey;
+        table.scores[index] = score;
+        table.filled[index] = true;
+        return score;
+    }
+
+    /**
+     * Appelée une fois la recherche terminée : les threads n'écrivent plus dans leurs compteurs
+     *
+     * @return double : Pourcentage de structures trouvées dans les tables depuis le dernier resetStats (-1 si aucune)
+     */
+    public static double getHitRate() {
+        long probes = 0;
+        long hits = 0;
+        for (PawnHashTable table : ALL_TABLES) {
+            probes += table.probes;
+            hits += table.hits;
+        }
+        return (probes == 0) ? -1 : 100.0 * hits / probes;
+    }
+
+    /**
+     * Remet les compteurs à zéro avant une recherche et oublie les tables des threads terminés (pool recréée)
+     */
+    public static void resetStats() {
+        ALL_TABLES.removeIf(table -> !table.owner.isAlive());
+        for (PawnHashTable table : ALL_TABLES) {
+            table.probes = 0;
+            table.hits = 0;
+        }
+    }
+}
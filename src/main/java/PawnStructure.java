@@ -0,0 +1,143 @@
+import com.github.bhlangonijr.chesslib.Side;
+
+/**
+ * Termes de structure de pions : pions passés, isolés, doublés et arriérés, et bouclier de pions du roi.
+ * Un score est un couple (ouverture, finale) rangé dans un int : ouverture sur les 16 bits de poids fort,
+ * finale sur les 16 bits de poids faible (voir score, opening et ending).
+ * Inspiré de : <a href="https://www.chessprogramming.org/Pawn_Structure">...</a>
+ */
+public class PawnStructure {
+    private static final int DOUBLED_OPENING = -10;
+    private static final int DOUBLED_ENDING = -20;
+    private static final int ISOLATED_OPENING = -10;
+    private static final int ISOLATED_ENDING = -15;
+    private static final int BACKWARD_OPENING = -8;
+    private static final int BACKWARD_ENDING = -10;
+    private static final int SHIELD_BONUS = 10; // Par pion devant le roi (ouverture uniquement)
+
+    // Bonus des pions passés selon la rangée relative (1 à 8)
+    private static final int[] PASSED_OPENING = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDING = {0, 10, 20, 35, 60, 100, 150, 0};
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+
+    // Masques par camp et par case
+    private static final long[][] PASSED = new long[2][64]; // Cases devant le pion (même colonne et adjacentes)
+    private static final long[][] SUPPORT = new long[2][64]; // Colonnes adjacentes, rangées jusqu'à celle du pion
+    private static final long[][] SHIELD = new long[2][64]; // Deux rangées devant le roi (3 colonnes)
+
+    static {
+        for (int f = 0; f < 8; f++) {
+            FILES[f] = FILE_A << f;
+        }
+        for (int f = 0; f < 8; f++) {
+            ADJACENT_FILES[f] = (f > 0 ? FILES[f - 1] : 0L) | (f < 7 ? FILES[f + 1] : 0L);
+        }
+
+        for (int sq = 0; sq < 64; sq++) {
+            int file = sq & 7;
+            int rank = sq >>> 3;
+            long span = FILES[file] | ADJACENT_FILES[file];
+            for (int r = 0; r < 8; r++) {
+                long row = 0xFFL << (8 * r);
+                if (r > rank)
+                    PASSED[Side.WHITE.ordinal()][sq] |= span & row;
+                if (r < rank)
+                    PASSED[Side.BLACK.ordinal()][sq] |= span & row;
+                if (r <= rank)
+                    SUPPORT[Side.WHITE.ordinal()][sq] |= ADJACENT_FILES[file] & row;
+                if (r >= rank)
+                    SUPPORT[Side.BLACK.ordinal()][sq] |= ADJACENT_FILES[file] & row;
+                if (r == rank + 1 || r == rank + 2)
+                    SHIELD[Side.WHITE.ordinal()][sq] |= span & row;
+                if (r == rank - 1 || r == rank - 2)
+                    SHIELD[Side.BLACK.ordinal()][sq] |= span & row;
+            }
+        }
+    }
+
+    /**
+     * Termes de structure (blancs - noirs), ne dépendant que de la position des pions
+     *
+     * @param whitePawns : Bitboard des pions blancs
+     * @param blackPawns : Bitboard des pions noirs
+     * @return int : Score (ouverture, finale)
+     */
+    public static int evaluate(long whitePawns, long blackPawns) {
+        return evaluateSide(Side.WHITE, whitePawns, blackPawns) - evaluateSide(Side.BLACK, blackPawns, whitePawns);
+    }
+
+    private static int evaluateSide(Side side, long pawns, long opponentPawns) {
+        int s = side.ordinal();
+        int opening = 0;
+        int ending = 0;
+
+        for (int f = 0; f < 8; f++) { // Pions doublés
+            int count = Long.bitCount(pawns & FILES[f]);
+            if (count > 1) {
+                opening += DOUBLED_OPENING * (count - 1);
+                ending += DOUBLED_ENDING * (count - 1);
+            }
+        }
+
+        long remaining = pawns;
+        while (remaining != 0L) {
+            int sq = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            int file = sq & 7;
+            int relativeRank = (side == Side.WHITE) ? sq >>> 3 : 7 - (sq >>> 3);
+
+            if ((PASSED[s][sq] & opponentPawns) == 0L) {
+                opening += PASSED_OPENING[relativeRank];
+                ending += PASSED_ENDING[relativeRank];
+            }
+
+            if ((ADJACENT_FILES[file] & pawns) == 0L) {
+                opening += ISOLATED_OPENING;
+                ending += ISOLATED_ENDING;
+            } else if ((SUPPORT[s][sq] & pawns) == 0L && isStopAttacked(side, sq, opponentPawns)) {
+                // Aucun pion voisin ne peut le soutenir et la case devant lui est contrôlée par un pion adverse
+                opening += BACKWARD_OPENING;
+                ending += BACKWARD_ENDING;
+            }
+        }
+        return score(opening, ending);
+    }
+
+    private static boolean isStopAttacked(Side side, int sq, long opponentPawns) {
+        int stop = (side == Side.WHITE) ? sq + 8 : sq - 8;
+        if (stop < 0 || stop > 63)
+            return false;
+
+        int attacker = (side == Side.WHITE) ? stop + 8 : stop - 8; // Rangée d'où un pion adverse attaque stop
+        if (attacker < 0 || attacker > 63)
+            return false;
+        return (ADJACENT_FILES[stop & 7] & (0xFFL << (8 * (attacker >>> 3))) & opponentPawns) != 0L;
+    }
+
+    /**
+     * Bouclier de pions du roi (dépend de la case du roi : calculé hors de la table des pions)
+     *
+     * @param side : Camp du roi
+     * @param kingSquare : Case du roi
+     * @param pawns : Pions du camp
+     * @return int : Bonus d'ouverture
+     */
+    public static int shield(Side side, int kingSquare, long pawns) {
+        return SHIELD_BONUS * Long.bitCount(SHIELD[side.ordinal()][kingSquare] & pawns);
+    }
+
+    public static int score(int opening, int ending) {
+        return (opening << 16) + ending;
+    }
+
+    public static int opening(int score) {
+        return (score + 0x8000) >> 16;
+    }
+
+    public static int ending(int score) {
+        return (short) score;
+    }
+}
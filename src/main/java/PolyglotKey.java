@@ -0,0 +1,132 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.CastleRight;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Clé Polyglot calculée directement à partir du plateau (sans passer par la FEN) et mise à jour coup par coup.
+ * Elle utilise la même table random64 que fenToPolyglot et donne donc la même clé.
+ * Indépendante de la clé Zobrist de chesslib, elle sert aussi à vérifier les entrées de la table de transpositions.
+ * Inspiré de : <a href="http://hgm.nubati.net/book_format.html">...</a>
+ */
+public class PolyglotKey {
+    private static final long[] RANDOM = fenToPolyglot.random64;
+    private static final Piece[] PIECES = Piece.values();
+    private static final int[] KIND = new int[PIECES.length]; // Index Polyglot de chaque pièce (pPnNbBrRqQkK)
+
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = 0x8080808080808080L;
+
+    static {
+        for (Piece piece : PIECES) {
+            if (piece != Piece.NONE)
+                KIND[piece.ordinal()] = 2 * piece.getPieceType().ordinal() + (piece.getPieceSide() == Side.WHITE ? 1 : 0);
+        }
+    }
+
+    /**
+     * Calcule la clé complète d'une position
+     *
+     * @param board : Position
+     * @return long : Clé Polyglot
+     */
+    public static long compute(Board board) {
+        long key = 0L;
+        for (Piece piece : PIECES) {
+            if (piece == Piece.NONE)
+                continue;
+
+            long bitboard = board.getBitboard(piece);
+            while (bitboard != 0L) {
+                key ^= random(piece, Long.numberOfTrailingZeros(bitboard));
+                bitboard &= bitboard - 1;
+            }
+        }
+
+        key ^= stateKey(board);
+        if (board.getSideToMove() == Side.WHITE)
+            key ^= RANDOM[fenToPolyglot.randomTurnOffset];
+        return key;
+    }
+
+    /**
+     * Partie de la clé qui dépend des droits au roque et de la prise en passant
+     *
+     * @param board : Position
+     * @return long : Clé des droits au roque et de la colonne de prise en passant
+     */
+    public static long stateKey(Board board) {
+        long key = castleKey(board.getCastleRight(Side.WHITE), fenToPolyglot.randomCastleOffset)
+                ^ castleKey(board.getCastleRight(Side.BLACK), fenToPolyglot.randomCastleOffset + 2);
+
+        // La colonne n'est prise en compte que si un pion du joueur au trait peut effectuer la prise
+        Square target = board.getEnPassantTarget(); // Pion qui vient d'avancer de deux cases
+        if (target != null && target != Square.NONE) {
+            long bitboard = 1L << target.ordinal();
+            long adjacent = ((bitboard << 1) & ~FILE_A) | ((bitboard >>> 1) & ~FILE_H);
+            if ((board.getBitboard(Piece.make(board.getSideToMove(), PieceType.PAWN)) & adjacent) != 0L)
+                key ^= RANDOM[fenToPolyglot.randomEnPassantOffset + (target.ordinal() & 7)];
+        }
+        return key;
+    }
+
+    /**
+     * Différence de clé due au déplacement des pièces et au changement de trait, à appeler avant board.doMove.
+     * Les droits au roque et la prise en passant sont mis à jour avec stateKey avant et après le coup.
+     *
+     * @param board : Position avant le coup
+     * @param move : Coup à jouer
+     * @return long : Valeur à combiner (xor) avec la clé
+     */
+    public static long moveKey(Board board, Move move) {
+        int from = move.getFrom().ordinal();
+        int to = move.getTo().ordinal();
+        Piece piece = board.getPiece(move.getFrom());
+        Piece captured = board.getPiece(move.getTo());
+        Piece placed = (move.getPromotion() != null && move.getPromotion() != Piece.NONE) ? move.getPromotion() : piece;
+
+        long key = random(piece, from) ^ random(placed, to) ^ RANDOM[fenToPolyglot.randomTurnOffset];
+
+        if (captured != Piece.NONE) {
+            key ^= random(captured, to);
+        } else if (piece.getPieceType() == PieceType.PAWN && (from & 7) != (to & 7)) { // Prise en passant
+            key ^= random(Piece.make(board.getSideToMove().flip(), PieceType.PAWN), (from & ~7) | (to & 7));
+        } else if (piece.getPieceType() == PieceType.KING && Math.abs((from & 7) - (to & 7)) == 2) { // Roque
+            Piece rook = Piece.make(piece.getPieceSide(), PieceType.ROOK);
+            int rank = from & ~7;
+            key ^= ((to & 7) > (from & 7)) ? random(rook, rank | 7) ^ random(rook, rank | 5) :
+                    random(rook, rank) ^ random(rook, rank | 3);
+        }
+        return key;
+    }
+
+    /**
+     * @return long : Différence de clé due au seul changement de trait (coup nul)
+     */
+    public static long turnKey() {
+        return RANDOM[fenToPolyglot.randomTurnOffset];
+    }
+
+    /**
+     * @return long : Valeur aléatoire associée à la pièce sur la case
+     */
+    public static long pieceKey(Piece piece, int square) {
+        return random(piece, square);
+    }
+
+    private static long random(Piece piece, int square) {
+        return RANDOM[64 * KIND[piece.ordinal()] + square];
+    }
+
+    private static long castleKey(CastleRight right, int offset) {
+        long key = 0L;
+        if (right == CastleRight.KING_AND_QUEEN_SIDE || right == CastleRight.KING_SIDE)
+            key ^= RANDOM[offset];
+        if (right == CastleRight.KING_AND_QUEEN_SIDE || right == CastleRight.QUEEN_SIDE)
+            key ^= RANDOM[offset + 1];
+        return key;
+    }
+}
@@ -2,8 +2,8 @@ import com.github.bhlangonijr.chesslib.move.Move;
 
 /**
  * Record permettant de stocker le résultat d'une recherche
- * @param num : evaluation
+ * @param num : evaluation (centipions)
  * @param bestMove : meilleur coup trouvé
  * @param nodeExplored : nombre de noeuds explorés
  */
-public record Result(Double num, Move bestMove, Integer nodeExplored) {}
+public record Result(int num, Move bestMove, int nodeExplored) {}
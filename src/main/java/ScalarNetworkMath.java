@@ -0,0 +1,41 @@
+/**
+ * Opérations du réseau sans l'API Vector (boucles simples, que le JIT peut encore vectoriser en partie)
+ */
+public class ScalarNetworkMath implements NetworkMath {
+
+    @Override
+    public void addSub(short[] from, short[] to, int offset, short[] weights, int added, int removed, int length) {
+        for (int i = 0; i < length; i++) {
+            to[offset + i] = (short) (from[offset + i] + weights[added + i] - weights[removed + i]);
+        }
+    }
+
+    @Override
+    public void add(short[] acc, int offset, short[] weights, int weight, int length) {
+        for (int i = 0; i < length; i++) {
+            acc[offset + i] += weights[weight + i];
+        }
+    }
+
+    @Override
+    public void sub(short[] acc, int offset, short[] weights, int weight, int length) {
+        for (int i = 0; i < length; i++) {
+            acc[offset + i] -= weights[weight + i];
+        }
+    }
+
+    @Override
+    public int activate(short[] acc, int offset, short[] weights, int weight, int length, int max) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            int value = Math.max(0, Math.min(max, acc[offset + i]));
+            sum += value * weights[weight + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
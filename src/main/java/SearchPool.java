@@ -0,0 +1,38 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Pool de threads unique utilisée par toutes les recherches (work-stealing).
+ * Elle est créée une seule fois au démarrage et n'est recréée que si l'option UCI "Threads" change.
+ */
+public class SearchPool {
+    static final int THREADS_MIN = 1;
+    static final int THREADS_MAX = 256;
+    static final int THREADS_DEFAULT = Math.max(THREADS_MIN, Math.min(THREADS_MAX, Runtime.getRuntime().availableProcessors()));
+
+    private static ForkJoinPool pool = new ForkJoinPool(THREADS_DEFAULT);
+
+    /**
+     * @return ForkJoinPool : Pool de la recherche
+     */
+    public static synchronized ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public static synchronized int getThreads() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Modifie le nombre de threads de la pool (les tâches en cours de l'ancienne pool se terminent normalement)
+     *
+     * @param threads : Nombre de threads souhaité
+     */
+    public static synchronized void setThreads(int threads) {
+        threads = Math.max(THREADS_MIN, Math.min(THREADS_MAX, threads));
+        if (threads == pool.getParallelism())
+            return;
+
+        pool.shutdown();
+        pool = new ForkJoinPool(threads);
+    }
+}
@@ -0,0 +1,320 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.Arrays;
+
+/**
+ * Tampons de la recherche propres à chaque thread, alloués une seule fois : sélecteurs de coups, clé Polyglot,
+ * accumulateurs de l'évaluation et, si l'évaluation NNUE est choisie, accumulateur du réseau par ply.
+ * Contient aussi ce que la recherche a appris pour trier les coups calmes : deux coups "killer" par ply, l'historique
+ * (camp x départ x arrivée) des coups ayant provoqué une coupure et le coup qui a réfuté chaque coup adverse
+ * (countermove). L'historique est divisé par deux à chaque nouvelle recherche et tout est effacé à chaque nouvelle
+ * partie.
+ * Le ply courant est partagé par tous les Node d'un même thread pour qu'un split point recherché par le thread
+ * propriétaire n'écrase pas les coups des plies supérieurs.
+ */
+public class SearchStack {
+    public static final int MAX_PLY = 128;
+    public static final int MAX_MOVES = 256; // Nombre maximal de coups légaux dans une position
+    public static final int POLL_INTERVAL = 1_024; // Noeuds entre deux vérifications des limites (Stop.poll)
+
+    // Tri des coups vers une case vide, sous les captures gagnantes (Node.getMoveScore)
+    private static final int TACTICAL = 9_500;
+    private static final int KILLER_1 = 9_000;
+    private static final int KILLER_2 = 8_500;
+    private static final int COUNTER_MOVE = 8_000;
+    private static final int HISTORY_MAX = 4_096; // Borne des valeurs de l'historique
+    private static final int BAD_TACTICAL = -2 * HISTORY_MAX; // Sous-promotions et prises en passant perdantes
+    private static final int NO_MOVE = 0; // Aucun coup encodé ne vaut 0 (promotion Piece.NONE)
+    private static final int NULL_MOVE = -2; // previousMoves : coup nul (-1 : coup inconnu)
+
+    private static final ThreadLocal<SearchStack> STACKS = ThreadLocal.withInitial(SearchStack::new);
+
+    // Incrémentés par UCI : nouvelle recherche (vieillissement de l'historique), nouvelle partie (effacement)
+    private static volatile int searchGeneration = 0;
+    private static volatile int gameGeneration = 0;
+
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY]; // Coups de chaque ply
+    private final long[] keys = new long[MAX_PLY + 1]; // Clé Polyglot de la position de chaque ply
+    private final int[][] accumulators = new int[MAX_PLY + 1][EvalAccumulator.SIZE]; // Voir EvalAccumulator
+    private final short[][] networkAccumulators = new short[MAX_PLY + 1][]; // Voir Network
+    private Network network; // Réseau dont les accumulateurs sont tenus à jour, null si l'évaluation n'en utilise pas
+    private final int[] previousMoves = new int[MAX_PLY + 1]; // Départ * 64 + arrivée du coup joué, -1 si inconnu
+
+    private final int[][] killers = new int[MAX_PLY][2]; // Coups encodés (TranspositionTable.encodeMove)
+    private final int[] history = new int[2 * 64 * 64]; // Camp, départ, arrivée
+    private final int[] counterMoves = new int[64 * 64]; // Coup encodé qui a réfuté chaque coup (départ, arrivée)
+    private int searchSeen = 0;
+    private int gameSeen = 0;
+    private int ply = 0;
+    private int pollCountdown = POLL_INTERVAL; // Noeuds du thread avant la prochaine vérification
+    private boolean stopped; // Arrêt de la recherche du thread constaté à la dernière vérification
+
+    private SearchStack() {
+        for (int i = 0; i < MAX_PLY; i++) {
+            this.pickers[i] = new MovePicker(this);
+        }
+    }
+
+    /**
+     * @return SearchStack : Tampons du thread courant
+     */
+    public static SearchStack get() {
+        return STACKS.get();
+    }
+
+    /**
+     * @return MovePicker : Sélecteur de coups du ply courant
+     */
+    public MovePicker getPicker() {
+        return this.pickers[this.ply];
+    }
+
+    /**
+     * Score de tri d'un coup vers une case vide : promotions en dame et prises en passant gagnantes avant les killers,
+     * puis killers, countermove du coup précédent et historique ; sous-promotions et prises en passant perdantes en
+     * dernier
+     *
+     * @param board : Position actuelle
+     * @param move : Coup sans capture d'une pièce
+     * @return int : Score de tri
+     */
+    public int getQuietScore(Board board, Move move) {
+        if (move.getPromotion() != Piece.NONE) {
+            return (move.getPromotion().getPieceType() == PieceType.QUEEN) ?
+                    TACTICAL + Node.getMoveScore(board, move) : BAD_TACTICAL;
+        }
+        if (!Node.isQuiet(board, move)) { // Prise en passant : triée comme une capture (SEE puis MVV-LVA)
+            int see = StaticExchange.see(board, move);
+            return (see >= 0) ? TACTICAL + Node.getMvvLvaScore(board, move) : BAD_TACTICAL + see;
+        }
+
+        int code = TranspositionTable.encodeMove(move);
+        int previous = this.previousMoves[this.ply];
+        int[] killer = this.killers[this.ply];
+        if (code == killer[0])
+            return KILLER_1;
+        if (code == killer[1])
+            return KILLER_2;
+        if (previous >= 0 && code == this.counterMoves[previous])
+            return COUNTER_MOVE;
+
+        // Historique, la case d'arrivée départage les coups encore inconnus
+        return this.history[historyIndex(board.getSideToMove().ordinal(), move)] + Node.getMoveScore(board, move);
+    }
+
+    /**
+     * Joue le coup et met à jour la clé Polyglot et les accumulateurs de l'évaluation de façon incrémentale
+     *
+     * @param board : Position actuelle
+     * @param move : Coup à jouer
+     */
+    public void doMove(Board board, Move move) {
+        long key = this.keys[this.ply] ^ PolyglotKey.moveKey(board, move) ^ PolyglotKey.stateKey(board);
+        this.previousMoves[this.ply + 1] = move.getFrom().ordinal() * 64 + move.getTo().ordinal();
+        EvalAccumulator.update(board, move, this.accumulators[this.ply], this.accumulators[this.ply + 1]);
+        if (this.network != null)
+            this.network.update(board, move, this.networkAccumulators[this.ply], this.networkAccumulators[this.ply + 1]);
+        board.doMove(move);
+        this.ply++;
+        this.keys[this.ply] = key ^ PolyglotKey.stateKey(board);
+    }
+
+    /**
+     * Passe le trait (null move pruning) ; annulé par undoMove
+     *
+     * @param board : Position actuelle
+     */
+    public void doNullMove(Board board) {
+        long key = this.keys[this.ply] ^ PolyglotKey.turnKey() ^ PolyglotKey.stateKey(board);
+        this.previousMoves[this.ply + 1] = NULL_MOVE;
+        System.arraycopy(this.accumulators[this.ply], 0, this.accumulators[this.ply + 1], 0, EvalAccumulator.SIZE);
+        if (this.network != null)
+            System.arraycopy(this.networkAccumulators[this.ply], 0, this.networkAccumulators[this.ply + 1], 0,
+                    this.network.getAccumulatorSize());
+        board.doNullMove();
+        this.ply++;
+        this.keys[this.ply] = key ^ PolyglotKey.stateKey(board);
+    }
+
+    /**
+     * @return boolean : Vrai si la position du ply courant vient d'un coup nul (pas deux coups nuls de suite)
+     */
+    public boolean isAfterNullMove() {
+        return this.previousMoves[this.ply] == NULL_MOVE;
+    }
+
+    public void undoMove(Board board) {
+        this.ply--;
+        board.undoMove();
+    }
+
+    /**
+     * @return long : Clé Polyglot de la position du ply courant
+     */
+    public long getKey() {
+        return this.keys[this.ply];
+    }
+
+    /**
+     * @return int[] : Accumulateurs de l'évaluation de la position du ply courant
+     */
+    public int[] getAccumulator() {
+        return this.accumulators[this.ply];
+    }
+
+    /**
+     * Calcule la clé et les accumulateurs de la position à la racine d'une recherche (les plies suivants sont mis à
+     * jour par doMove)
+     *
+     * @param board : Position à la racine
+     */
+    public void setRoot(Board board) {
+        if (this.gameSeen != gameGeneration) {
+            this.gameSeen = gameGeneration;
+            this.searchSeen = searchGeneration;
+            clearHeuristics();
+        } else if (this.searchSeen != searchGeneration) {
+            this.searchSeen = searchGeneration;
+            ageHeuristics();
+        }
+
+        this.previousMoves[this.ply] = -1;
+        this.keys[this.ply] = PolyglotKey.compute(board);
+        EvalAccumulator.compute(board, this.accumulators[this.ply]);
+
+        this.network = Evaluators.usesNetwork() ? NNUEEvaluation.INSTANCE.getNetwork() : null;
+        if (this.network != null) {
+            int size = this.network.getAccumulatorSize();
+            if (this.networkAccumulators[0] == null || this.networkAccumulators[0].length != size) {
+                for (int i = 0; i <= MAX_PLY; i++) {
+                    this.networkAccumulators[i] = new short[size];
+                }
+            }
+            this.network.refresh(board, this.networkAccumulators[this.ply]);
+        }
+    }
+
+    /**
+     * @return Network : Réseau dont l'accumulateur est tenu à jour, null si aucun
+     */
+    public Network getNetwork() {
+        return this.network;
+    }
+
+    /**
+     * @return short[] : Accumulateur du réseau de la position du ply courant
+     */
+    public short[] getNetworkAccumulator() {
+        return this.networkAccumulators[this.ply];
+    }
+
+    public int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * Compte un noeud exploré par ce thread, tous Node confondus ; tous les POLL_INTERVAL noeuds, les signale à Stop
+     * (limites de temps et de noeuds) et relit l'arrêt
+     *
+     * @param stop : Arrêt de la recherche du thread
+     */
+    public void countNode(Stop stop) {
+        if (--this.pollCountdown > 0)
+            return;
+        this.pollCountdown = POLL_INTERVAL;
+        this.stopped = stop.poll(POLL_INTERVAL);
+    }
+
+    /**
+     * @return boolean : Arrêt constaté à la dernière vérification (countNode ou readStop)
+     */
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    /**
+     * Relit immédiatement l'arrêt (nouveau Node, fin d'un split point, avant d'écrire dans la table)
+     *
+     * @param stop : Arrêt de la recherche du thread
+     * @return boolean : Vrai si la recherche est arrêtée
+     */
+    public boolean readStop(Stop stop) {
+        this.stopped = stop.getStop();
+        return this.stopped;
+    }
+
+    /**
+     * Un coup calme a provoqué une coupure : il devient killer du ply, countermove du coup précédent, et son
+     * historique augmente tandis que celui des coups calmes essayés avant lui diminue
+     *
+     * @param board : Position actuelle
+     * @param best : Coup calme de la coupure
+     * @param depth : Profondeur restante (bonus = depth²)
+     * @param tried : Coups du noeud, recherchés dans l'ordre
+     * @param triedCount : Nombre de coups recherchés avant best
+     */
+    public void updateQuietStats(Board board, Move best, int depth, Move[] tried, int triedCount) {
+        int side = board.getSideToMove().ordinal();
+        int bonus = Math.min(depth * depth, HISTORY_MAX / 8);
+        int code = TranspositionTable.encodeMove(best);
+
+        addHistory(historyIndex(side, best), bonus);
+        for (int i = 0; i < triedCount; i++) {
+            if (tried[i] != best && Node.isQuiet(board, tried[i]))
+                addHistory(historyIndex(side, tried[i]), -bonus);
+        }
+
+        int[] killer = this.killers[this.ply];
+        if (killer[0] != code) {
+            killer[1] = killer[0];
+            killer[0] = code;
+        }
+        if (this.previousMoves[this.ply] >= 0)
+            this.counterMoves[this.previousMoves[this.ply]] = code;
+    }
+
+    // Les valeurs tendent vers ±HISTORY_MAX sans jamais la dépasser
+    private void addHistory(int index, int bonus) {
+        this.history[index] += bonus - this.history[index] * Math.abs(bonus) / HISTORY_MAX;
+    }
+
+    private static int historyIndex(int side, Move move) {
+        return (side * 64 + move.getFrom().ordinal()) * 64 + move.getTo().ordinal();
+    }
+
+    private void ageHeuristics() {
+        for (int i = 0; i < this.history.length; i++) {
+            this.history[i] /= 2;
+        }
+        for (int[] killer : this.killers) {
+            killer[0] = NO_MOVE;
+            killer[1] = NO_MOVE;
+        }
+    }
+
+    private void clearHeuristics() {
+        Arrays.fill(this.history, 0);
+        Arrays.fill(this.counterMoves, NO_MOVE);
+        for (int[] killer : this.killers) {
+            killer[0] = NO_MOVE;
+            killer[1] = NO_MOVE;
+        }
+    }
+
+    /**
+     * Nouvelle recherche : l'historique de chaque thread sera divisé par deux et ses killers effacés
+     */
+    public static void newSearch() {
+        searchGeneration++;
+    }
+
+    /**
+     * Nouvelle partie : killers, historique et countermoves de chaque thread seront effacés
+     */
+    public static void newGame() {
+        gameGeneration++;
+    }
+}
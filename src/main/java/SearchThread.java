@@ -0,0 +1,84 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Thread de recherche lancé par la commande "go" pour que la boucle UCI continue de lire les commandes
+ * ("stop", "ponderhit", "isready", "quit") pendant la réflexion
+ */
+public class SearchThread extends Thread {
+
+    private static final long WAIT_INTERVAL = 1L; // Attente de "stop" / "ponderhit" (ms)
+
+    private final Board board;
+    private final TimeManager timeManager;
+    private final Stop stop;
+    private Timer timer;
+
+    /**
+     * @param board : Copie de la position à rechercher
+     * @param timeManager : Limites de la recherche
+     */
+    public SearchThread(Board board, TimeManager timeManager) {
+        this.board = board;
+        this.timeManager = timeManager;
+        this.stop = new Stop();
+        this.timer = null;
+    }
+
+    /**
+     * Recherche le coup (livre d'ouvertures puis PVS) et l'envoie à l'interface. En mode "infinite" ou "ponder",
+     * "bestmove" n'est envoyé qu'après "stop" ou "ponderhit".
+     */
+    public void run() {
+        if (!this.timeManager.isPondering()) {
+            startTimer();
+        }
+
+        Move move = UCI.getBookMove(this.board);
+        if (move == null) {
+            move = UCI.search(this.board, this.timeManager, this.stop).bestMove(); // PVS
+        }
+
+        try {
+            while (this.timeManager.mustWait() && !this.stop.getStop()) {
+                Thread.sleep(WAIT_INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.stop.setTrueStop();
+        synchronized (this) {
+            if (this.timer != null) {
+                this.timer.interrupt();
+            }
+        }
+
+        Move ponderMove = (move == null) ? null : UCI.getPonderMove(this.board, move);
+        System.out.println("bestmove " + ((move == null) ? "0000" : move)
+                + ((ponderMove == null) ? "" : " ponder " + ponderMove));
+    }
+
+    /**
+     * Commande "stop" : arrête la recherche, "bestmove" est envoyé dès que possible
+     */
+    public void stopSearch() {
+        this.stop.setTrueStop();
+    }
+
+    /**
+     * Commande "ponderhit" : l'adversaire a joué le coup attendu, la recherche continue avec le temps normal
+     */
+    public void ponderHit() {
+        this.timeManager.ponderHit();
+        startTimer();
+    }
+
+    private synchronized void startTimer() {
+        if (this.timer == null && this.timeManager.hasHardLimit()) {
+            this.stop.setDeadline(this.timeManager.getHardLimit()); // Vérifiée aussi par les threads de recherche
+            this.timer = new Timer(this.stop, this.timeManager.getHardLimit());
+            this.timer.start(); // Lance le timer dans un thread à part
+        }
+    }
+}
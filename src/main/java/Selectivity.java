@@ -0,0 +1,33 @@
+/**
+ * Techniques de sélectivité de la recherche, activables séparément pour mesurer leur effet (options UCI
+ * "Null Move", "LMR" et "Futility"). Lues à la création de chaque Node.
+ */
+public class Selectivity {
+    private static volatile boolean nullMove = true; // Null move pruning
+    private static volatile boolean lateMoveReductions = true; // Late move reductions
+    private static volatile boolean futility = true; // Reverse futility et futility pruning
+
+    public static boolean isNullMove() {
+        return nullMove;
+    }
+
+    public static void setNullMove(boolean enabled) {
+        nullMove = enabled;
+    }
+
+    public static boolean isLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public static void setLateMoveReductions(boolean enabled) {
+        lateMoveReductions = enabled;
+    }
+
+    public static boolean isFutility() {
+        return futility;
+    }
+
+    public static void setFutility(boolean enabled) {
+        futility = enabled;
+    }
+}
@@ -0,0 +1,231 @@
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Point de partage "Young Brothers Wait Concept" : une fois le premier fils d'un noeud recherché, les coups
+ * restants sont proposés aux threads inactifs de la pool. Tous les threads du split point partagent les bornes
+ * alpha/beta mises à jour au fil des résultats, et une coupure trouvée par un fils arrête immédiatement les autres.
+ * Scores et bornes du point de vue du joueur au trait (negamax) ; chaque coup est recherché comme dans la boucle de
+ * Node (Node.searchMove : futility pruning, fenêtre nulle réduite puis recherches complètes s'il dépasse alpha).
+ * Inspiré de : <a href="https://www.chessprogramming.org/Young_Brothers_Wait_Concept">...</a>
+ */
+public class SplitPoint implements ForkJoinPool.ManagedBlocker {
+
+    private static volatile boolean enabled = true; // Faux en mode Lazy SMP : chaque thread recherche seul
+
+    private final SplitPoint parent; // Split point englobant (arrêté => celui-ci aussi)
+    private final Move[] moves; // Copie des coups : les tampons du propriétaire sont réutilisés ensuite
+    private final int moveCount;
+    private final AtomicInteger nextMove; // Index du prochain coup à rechercher
+    private final AtomicLong nodesExplored;
+    private final boolean inCheck; // Contexte du noeud pour la sélectivité de chaque coup (Node.searchMove)
+    private final boolean futile;
+
+    // Bornes et meilleur résultat partagés (modifiés sous verrou, lus sans verrou)
+    private volatile int alpha;
+    private volatile int beta;
+    private volatile int bestScore;
+    private volatile Move bestMove;
+
+    private volatile boolean cutOff; // Coupure alpha ou beta : les coups restants sont inutiles
+    private int activeMoves; // Coups en cours de recherche (protégé par this)
+
+    /**
+     * @param parent : Split point du thread qui crée celui-ci (null si aucun)
+     * @param alpha : Borne alpha après la recherche du premier fils
+     * @param beta : Borne beta après la recherche du premier fils
+     * @param bestScore : Score du premier fils
+     * @param bestMove : Premier fils
+     * @param searched : Coups du noeud déjà recherchés, dans l'ordre
+     * @param firstMove : Nombre de coups déjà recherchés, index du premier coup à partager
+     * @param remaining : Coups triés restant à rechercher
+     * @param remainingCount : Nombre de coups restant à rechercher
+     * @param inCheck : Vrai si le joueur au trait est en échec
+     * @param futile : Vrai si les coups calmes sans échec peuvent être élagués (futility pruning)
+     */
+    public SplitPoint(SplitPoint parent, int alpha, int beta, int bestScore, Move bestMove, Move[] searched,
+                      int firstMove, Move[] remaining, int remainingCount, boolean inCheck, boolean futile) {
+        this.parent = parent;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.bestScore = bestScore;
+        this.bestMove = bestMove;
+        // Rang de chaque coup conservé pour les réductions, coups déjà recherchés pénalisés par l'historique
+        this.moveCount = firstMove + remainingCount;
+        this.moves = Arrays.copyOf(searched, this.moveCount);
+        System.arraycopy(remaining, 0, this.moves, firstMove, remainingCount);
+        this.nextMove = new AtomicInteger(firstMove);
+        this.nodesExplored = new AtomicLong(0);
+        this.inCheck = inCheck;
+        this.futile = futile;
+        this.cutOff = false;
+        this.activeMoves = 0;
+    }
+
+    /**
+     * Recherche les coups restants jusqu'à épuisement ou coupure. Appelée par le thread propriétaire et par les
+     * threads auxiliaires, chacun avec sa propre copie du plateau et ses tampons (SearchStack) positionnés sur le
+     * split point.
+     *
+     * @param board : Position du split point
+     * @param depth : Profondeur restante du split point
+     * @param stop : Arrêt de la recherche
+     * @param transpositionTable : Table partagée
+     */
+    public void search(Board board, int depth, Stop stop, TranspositionTable transpositionTable) {
+        SearchStack stack = SearchStack.get();
+        while (!isAborted() && !stop.getStop()) {
+            Move move;
+            int index;
+            synchronized (this) {
+                index = this.nextMove.getAndIncrement();
+                if (index >= this.moveCount)
+                    break;
+                move = this.moves[index];
+                this.activeMoves++;
+            }
+
+            try {
+                // Les bornes sont lues au moment de commencer le coup : elles tiennent compte des frères terminés
+                // Le noeud est celui du split point : ses fils utilisent le ply suivant (le thread propriétaire
+                // garde intacts les coups de ses plies) et ne sont pas des racines, la sélectivité s'y applique
+                int alpha = this.alpha;
+                int beta = this.beta;
+                Node n = new Node(board, depth, board.getSideToMove() == Side.WHITE, move, alpha, beta, stop,
+                        transpositionTable, this);
+                int score = n.searchMove(board, move, index, depth, alpha, beta, this.inCheck, this.futile);
+
+                this.nodesExplored.addAndGet(n.getNodesExplored());
+                if (score != Node.PRUNED && !isAborted() && !stop.getStop() && update(score, move)
+                        && Node.isQuiet(board, move)) {
+                    stack.updateQuietStats(board, move, depth, this.moves, index);
+                }
+            } finally {
+                synchronized (this) {
+                    this.activeMoves--;
+                    this.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Lance les threads auxiliaires, participe à la recherche puis attend la fin des coups en cours
+     *
+     * @param board : Position du split point (plateau du thread propriétaire)
+     * @param depth : Profondeur restante du split point
+     * @param helpers : Nombre de threads auxiliaires
+     * @param stop : Arrêt de la recherche
+     * @param transpositionTable : Table partagée
+     */
+    public void run(Board board, int depth, int helpers, Stop stop, TranspositionTable transpositionTable) {
+        ForkJoinPool pool = SearchPool.getPool();
+        for (int i = 0; i < helpers; i++) {
+            Board copy = board.clone(); // Copie faite par le propriétaire, seul à modifier son plateau
+            pool.execute(() -> {
+                SearchStack.get().setRoot(copy); // Tampons du thread auxiliaire positionnés sur le split point
+                this.search(copy, depth, stop, transpositionTable);
+            });
+        }
+
+        this.search(board, depth, stop, transpositionTable);
+
+        synchronized (this) {
+            this.nextMove.set(this.moveCount); // Plus aucun coup ne peut être pris par un thread auxiliaire
+        }
+
+        try {
+            ForkJoinPool.managedBlock(this); // Un autre thread peut prendre le relais pendant l'attente
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Nombre de threads auxiliaires à proposer pour un split point. Un thread appelant extérieur à la pool (thread de
+     * recherche UCI) compte parmi les "Threads" de la recherche : la pool ne fournit que les autres.
+     *
+     * @param remainingMoves : Nombre de coups restant à rechercher
+     * @return int : Nombre de threads inactifs utilisables (0 = pas de partage)
+     */
+    public static int availableHelpers(int remainingMoves) {
+        if (!enabled) {
+            return 0;
+        }
+        ForkJoinPool pool = SearchPool.getPool();
+        int idle = pool.getParallelism() - pool.getActiveThreadCount() - pool.getQueuedSubmissionCount();
+        Thread current = Thread.currentThread();
+        if (!(current instanceof ForkJoinWorkerThread) || ((ForkJoinWorkerThread) current).getPool() != pool) {
+            idle--;
+        }
+        return Math.max(0, Math.min(idle, remainingMoves - 1));
+    }
+
+    /**
+     * @param enabled : Faux pour qu'aucun noeud ne soit partagé (option UCI "SMP Mode" à LazySMP)
+     */
+    public static void setEnabled(boolean enabled) {
+        SplitPoint.enabled = enabled;
+    }
+
+    /**
+     * Met à jour le meilleur score et les bornes avec le résultat d'un fils
+     *
+     * @return boolean : Vrai si ce résultat provoque la coupure du split point
+     */
+    private synchronized boolean update(int score, Move move) {
+        if (score > this.bestScore) {
+            this.bestScore = score;
+            this.bestMove = move;
+        }
+        this.alpha = Math.max(this.alpha, score);
+
+        if (this.alpha >= this.beta && !this.cutOff) {
+            this.cutOff = true; // Les autres fils s'arrêtent à leur prochain noeud
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return boolean : Vrai si ce split point ou un split point englobant a trouvé une coupure
+     */
+    public boolean isAborted() {
+        return this.cutOff || (this.parent != null && this.parent.isAborted());
+    }
+
+    /**
+     * Le split point est terminé lorsqu'aucun coup n'est plus en cours de recherche
+     */
+    @Override
+    public synchronized boolean isReleasable() {
+        return this.activeMoves == 0;
+    }
+
+    @Override
+    public synchronized boolean block() throws InterruptedException {
+        while (!isReleasable()) {
+            this.wait();
+        }
+        return true;
+    }
+
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+
+    public long getNodesExplored() {
+        return this.nodesExplored.get();
+    }
+}
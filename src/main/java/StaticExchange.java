@@ -0,0 +1,126 @@
+import com.github.bhlangonijr.chesslib.Bitboard;
+import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Side;
+import com.github.bhlangonijr.chesslib.Square;
+import com.github.bhlangonijr.chesslib.move.Move;
+
+/**
+ * Static Exchange Evaluation : bilan matériel de la suite de captures sur la case d'arrivée d'un coup, chaque camp
+ * reprenant avec sa pièce la moins chère et pouvant s'arrêter quand il le souhaite. Calculé sur les bitboards de
+ * chesslib : une pièce retirée de l'occupation découvre les pièces glissantes placées derrière elle (rayons X).
+ * Inspiré de : <a href="https://www.chessprogramming.org/SEE_-_The_Swap_Algorithm">...</a>
+ */
+public class StaticExchange {
+    private static final int MAX_EXCHANGES = 32;
+    private static final Square[] SQUARES = Square.values();
+    private static final PieceType[] TYPES = {PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+            PieceType.QUEEN, PieceType.KING}; // Ordre croissant de valeur
+
+    // Gains successifs de l'échange, un tampon par thread (aucune allocation par appel)
+    private static final ThreadLocal<int[]> GAINS = ThreadLocal.withInitial(() -> new int[MAX_EXCHANGES]);
+
+    /**
+     * Evalue l'échange initié par le coup
+     *
+     * @param board : Position avant le coup
+     * @param move : Coup (capture ou non)
+     * @return int : Gain matériel du joueur au trait (centipions, < 0 si le coup perd du matériel)
+     */
+    public static int see(Board board, Move move) {
+        int from = move.getFrom().ordinal();
+        int to = move.getTo().ordinal();
+        Square target = SQUARES[to];
+        Piece piece = board.getPiece(move.getFrom());
+        Piece captured = board.getPiece(move.getTo());
+        boolean promotion = move.getPromotion() != null && move.getPromotion() != Piece.NONE;
+
+        long occupied = board.getBitboard() ^ (1L << from);
+        int[] gain = GAINS.get();
+        gain[0] = (captured != Piece.NONE) ? value(captured) : 0;
+        if (captured == Piece.NONE && piece.getPieceType() == PieceType.PAWN && (from & 7) != (to & 7)) {
+            gain[0] = value(PieceType.PAWN); // Prise en passant : le pion pris n'est pas sur la case d'arrivée
+            occupied ^= 1L << ((from & ~7) | (to & 7));
+        }
+        int onSquare = value(piece.getPieceType()); // Valeur de la pièce qui peut être reprise
+        if (promotion) {
+            gain[0] += value(move.getPromotion()) - value(PieceType.PAWN);
+            onSquare = value(move.getPromotion());
+        }
+
+        long bishops = board.getBitboard(Piece.WHITE_BISHOP) | board.getBitboard(Piece.BLACK_BISHOP)
+                | board.getBitboard(Piece.WHITE_QUEEN) | board.getBitboard(Piece.BLACK_QUEEN);
+        long rooks = board.getBitboard(Piece.WHITE_ROOK) | board.getBitboard(Piece.BLACK_ROOK)
+                | board.getBitboard(Piece.WHITE_QUEEN) | board.getBitboard(Piece.BLACK_QUEEN);
+        long attackers = attackersTo(board, target, occupied, bishops, rooks) & occupied;
+
+        Side side = piece.getPieceSide().flip();
+        int depth = 0;
+        while (depth < MAX_EXCHANGES - 1) {
+            long sideAttackers = attackers & board.getBitboard(side);
+            if (sideAttackers == 0L)
+                break;
+
+            // Pièce la moins chère du camp qui reprend
+            PieceType type = null;
+            long bitboard = 0L;
+            for (PieceType t : TYPES) {
+                bitboard = sideAttackers & board.getBitboard(Piece.make(side, t));
+                if (bitboard != 0L) {
+                    type = t;
+                    break;
+                }
+            }
+            if (type == null)
+                break;
+
+            // Le roi ne peut pas reprendre une case encore défendue
+            if (type == PieceType.KING && (attackers & board.getBitboard(side.flip())) != 0L)
+                break;
+
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            if (Math.max(-gain[depth - 1], gain[depth]) < 0)
+                break; // Aucun des deux camps n'a intérêt à continuer
+            onSquare = value(type);
+
+            occupied ^= Long.lowestOneBit(bitboard);
+            // Rayons X : pièces glissantes découvertes derrière la pièce qui vient de prendre
+            if (type == PieceType.PAWN || type == PieceType.BISHOP || type == PieceType.QUEEN)
+                attackers |= Bitboard.getBishopAttacks(occupied, target) & bishops;
+            if (type == PieceType.ROOK || type == PieceType.QUEEN)
+                attackers |= Bitboard.getRookAttacks(occupied, target) & rooks;
+            attackers &= occupied;
+            side = side.flip();
+        }
+
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * @return long : Pièces des deux camps qui attaquent la case avec cette occupation
+     */
+    private static long attackersTo(Board board, Square square, long occupied, long bishops, long rooks) {
+        long knights = board.getBitboard(Piece.WHITE_KNIGHT) | board.getBitboard(Piece.BLACK_KNIGHT);
+        long kings = board.getBitboard(Piece.WHITE_KING) | board.getBitboard(Piece.BLACK_KING);
+        return (Bitboard.getPawnAttacks(Side.BLACK, square) & board.getBitboard(Piece.WHITE_PAWN))
+                | (Bitboard.getPawnAttacks(Side.WHITE, square) & board.getBitboard(Piece.BLACK_PAWN))
+                | (Bitboard.getKnightAttacks(square, knights) & knights)
+                | (Bitboard.getKingAttacks(square, kings) & kings)
+                | (Bitboard.getBishopAttacks(occupied, square) & bishops)
+                | (Bitboard.getRookAttacks(occupied, square) & rooks);
+    }
+
+    private static int value(Piece piece) {
+        return BasicEvaluation.getPieceValue(piece);
+    }
+
+    private static int value(PieceType type) {
+        return value(Piece.make(Side.WHITE, type));
+    }
+}
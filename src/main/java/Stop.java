@@ -1,11 +1,33 @@
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Classe permettant d'arrêter la recherche si le temps défini est écoulé
+ * Classe permettant d'arrêter la recherche si le temps défini est écoulé ou si l'interface envoie "stop"
+ * (les noeuds de la recherche consultent ce drapeau et s'arrêtent d'eux-mêmes)
+ * Les threads de recherche appellent aussi poll() tous les SearchStack.POLL_INTERVAL noeuds : la limite de temps et
+ * la limite de noeuds y sont vérifiées par les threads eux-mêmes, sans dépendre du réveil du Timer sous charge.
+ * Un arrêt lié à un arrêt principal (threads auxiliaires du Lazy SMP) peut être levé seul ; il l'est aussi avec
+ * l'arrêt principal, dans les limites duquel ses noeuds sont comptés.
  */
 public class Stop {
-    private boolean stop;
+    private volatile boolean stop; // écrit par le Timer ou la boucle UCI, lu par les threads de recherche
+    private volatile long deadline; // Limite de temps (System.nanoTime, 0 = aucune)
+    private volatile long maxNodes; // Limite de noeuds (0 = aucune)
+    private final AtomicLong nodes; // Noeuds signalés par poll() depuis le début de la recherche
+    private final Stop parent; // Arrêt principal (null si aucun)
 
     public Stop() {
+        this(null);
+    }
+
+    /**
+     * @param parent : Arrêt principal dont les limites s'appliquent aussi à cet arrêt (null si aucun)
+     */
+    public Stop(Stop parent) {
         this.stop = false;
+        this.deadline = 0L;
+        this.maxNodes = 0L;
+        this.nodes = new AtomicLong(0);
+        this.parent = parent;
     }
 
     public void setTrueStop() {
@@ -13,6 +35,39 @@ public class Stop {
     }
 
     public boolean getStop() {
+        return this.stop || (this.parent != null && this.parent.getStop());
+    }
+
+    /**
+     * @param limit : Temps accordé à partir de maintenant (ms)
+     */
+    public void setDeadline(long limit) {
+        this.deadline = System.nanoTime() + Math.max(1L, limit) * 1_000_000L;
+    }
+
+    /**
+     * @param maxNodes : Nombre de noeuds maximal de la recherche (<= 0 : aucune limite)
+     */
+    public void setMaxNodes(long maxNodes) {
+        this.maxNodes = Math.max(0L, maxNodes);
+    }
+
+    /**
+     * Signale les noeuds explorés par un thread et vérifie les limites de temps et de noeuds
+     *
+     * @param explored : Noeuds explorés depuis le dernier appel
+     * @return boolean : Vrai si la recherche doit s'arrêter
+     */
+    public boolean poll(long explored) {
+        if (this.parent != null) {
+            return this.parent.poll(explored) || this.stop; // Noeuds comptés dans les limites principales
+        }
+        long total = this.nodes.addAndGet(explored);
+        if (!this.stop) {
+            long limit = this.deadline;
+            if ((this.maxNodes > 0 && total >= this.maxNodes) || (limit != 0L && System.nanoTime() - limit >= 0L))
+                this.stop = true;
+        }
         return this.stop;
     }
 }
@@ -1,11 +1,10 @@
 import com.github.bhlangonijr.chesslib.*;
 
-import static java.lang.Long.bitCount;
-
 /**
  * Fonction d'évaluation évolutive au fil de la partie
  */
-public class TaperedEvaluation {
+public class TaperedEvaluation implements Evaluator {
+    public static final TaperedEvaluation INSTANCE = new TaperedEvaluation();
 
     private static final int PHASE_CONSTANT = 256; // Phase maximale (diminue au cours de la partie)
 
@@ -15,7 +14,6 @@ public class TaperedEvaluation {
     private static final long BISHOP_VALUE = 320L;
     private static final long ROOK_VALUE = 500L;
     private static final long QUEEN_VALUE = 900L;
-    private static final long MATE_VALUE = 39000L;
 
     // Pénalités
     private static final int KNIGHT_PENALTY =  -10;
@@ -111,57 +109,67 @@ public class TaperedEvaluation {
                     -50, -30,-30,-30,-30,-30,-30,-50
             };
 
-    public static double eval(Board b) {
-        if (b.isInsufficientMaterial() || (b.getHalfMoveCounter() >= 100 && b.isStaleMate())) {
-            // if draw return 0
-            return 0.0;
-        } else if (b.isMated() && (b.getSideToMove() == Side.WHITE)) { 
-            // if mate and white to play then -inf
-            return -MATE_VALUE;
-        } else if (b.isMated() && (b.getSideToMove() != Side.WHITE)) { 
-            //if mate and black to play then +inf
-            return MATE_VALUE;
-        }
+    public static int eval(Board b) {
+        return INSTANCE.evaluate(b, EvalAccumulator.compute(b));
+    }
 
+    /**
+     * Evaluation à partir des accumulateurs de la position (mis à jour pendant la recherche).
+     * Les nuls (répétition comprise) et les mats sont détectés par la recherche (Node).
+     *
+     * @param b : Position actuelle
+     * @param acc : Accumulateurs de la position (EvalAccumulator)
+     * @return int : Evaluation (>0 avantage blanc)
+     */
+    @Override
+    public int evaluate(Board b, int[] acc) {
         // Score des blancs selon les bonus et pénalités d'un début de partie
-        double openingWhiteValue = countPieces(b, Side.WHITE) + calculatePieceSquare(b, Side.WHITE);
+        long openingWhiteValue = countPieces(acc, Side.WHITE) + calculatePieceSquare(acc, Side.WHITE);
         // Score des blancs selon les bonus et pénalités d'une fin de partie
-        double endingWhiteValue = openingWhiteValue + KingEndingTable[getPSTIndex(Side.WHITE,
-                b.getPieceLocation(Piece.make(Side.WHITE, PieceType.KING)).get(0))];
+        long endingWhiteValue = openingWhiteValue + KingEndingTable[getPSTIndex(Side.WHITE,
+                acc[EvalAccumulator.KING + Side.WHITE.ordinal()])];
 
         // Score des noirs selon les bonus et pénalités d'un début de partie
-        double openingBlackValue = countPieces(b, Side.BLACK) + calculatePieceSquare(b, Side.BLACK);
+        long openingBlackValue = countPieces(acc, Side.BLACK) + calculatePieceSquare(acc, Side.BLACK);
         // Score des noirs selon les bonus et pénalités d'une fin de partie
-        double endingBlackValue = openingBlackValue + KingEndingTable[getPSTIndex(Side.BLACK,
-                b.getPieceLocation(Piece.make(Side.BLACK, PieceType.KING)).get(0))];
+        long endingBlackValue = openingBlackValue + KingEndingTable[getPSTIndex(Side.BLACK,
+                acc[EvalAccumulator.KING + Side.BLACK.ordinal()])];
 
-        int phase = getPhase(b); // MAJ de la phase
+        int phase = getPhase(acc); // MAJ de la phase
 
         // Calcul du score de chaque camp avec une plus grande importance pour le score d'ouverture ou de
         // fermeture en fonction de la valeur de la phase.
-        double whiteValue = ((openingWhiteValue * (PHASE_CONSTANT - phase)) +
+        long whiteValue = ((openingWhiteValue * (PHASE_CONSTANT - phase)) +
                 (endingWhiteValue * phase)) / PHASE_CONSTANT;
 
-        double blackValue = ((openingBlackValue * (PHASE_CONSTANT - phase)) +
+        long blackValue = ((openingBlackValue * (PHASE_CONSTANT - phase)) +
                 (endingBlackValue * phase)) / PHASE_CONSTANT;
 
-        // Renvoie la différence entre les deux scores si ce n'est pas un nul par répétition
-        if (!b.isRepetition()) {
-            return whiteValue - blackValue;
-        }
+        // Structure de pions (table des pions) et bouclier de pions des rois, avec la même pondération
+        long whitePawns = b.getBitboard(Piece.WHITE_PAWN);
+        long blackPawns = b.getBitboard(Piece.BLACK_PAWN);
+        int pawns = PawnHashTable.probe(EvalAccumulator.pawnKey(acc), whitePawns, blackPawns);
+        int shield = PawnStructure.shield(Side.WHITE, acc[EvalAccumulator.KING + Side.WHITE.ordinal()], whitePawns)
+                - PawnStructure.shield(Side.BLACK, acc[EvalAccumulator.KING + Side.BLACK.ordinal()], blackPawns);
+        long pawnValue = ((long) (PawnStructure.opening(pawns) + shield) * (PHASE_CONSTANT - phase) +
+                (long) PawnStructure.ending(pawns) * phase) / PHASE_CONSTANT;
+
+        return (int) (whiteValue - blackValue + pawnValue);
+    }
 
-        // Si les blancs ont l'avantage on renvoie -MATE_VALUE pour éviter le nul, sinon on renvoie 0
-        return (whiteValue - blackValue > 0) ? -MATE_VALUE : 0.0;
+    @Override
+    public String getName() {
+        return "Tapered";
     }
 
     /**
      * Calcul de la phase en fonction des pièces encore en jeu
      * Inspiré de : <a href="https://www.chessprogramming.org/Tapered_Eval">...</a>
      *
-     * @param b : Position actuelle
+     * @param acc : Accumulateurs de la position actuelle
      * @return : int : Phase à jour
      */
-    private static int getPhase(Board b) {
+    private static int getPhase(int[] acc) {
         int knightPhase = 1;
         int bishopPhase = 1;
         int rookPhase = 2;
@@ -169,14 +177,14 @@ public class TaperedEvaluation {
         int totalPhase = knightPhase*4 + bishopPhase*4 + rookPhase*4 + queenPhase*2;
         int phase = totalPhase;
 
-        phase -= bitCount(b.getBitboard(Piece.make(Side.WHITE, PieceType.KNIGHT))) * knightPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.BLACK, PieceType.KNIGHT))) * knightPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.WHITE, PieceType.BISHOP))) * bishopPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.BLACK, PieceType.BISHOP))) * bishopPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.WHITE, PieceType.ROOK))) * rookPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.BLACK, PieceType.ROOK))) * rookPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.WHITE, PieceType.QUEEN))) * bishopPhase;
-        phase -= bitCount(b.getBitboard(Piece.make(Side.BLACK, PieceType.QUEEN))) * bishopPhase;
+        phase -= EvalAccumulator.count(acc, Side.WHITE, PieceType.KNIGHT) * knightPhase;
+        phase -= EvalAccumulator.count(acc, Side.BLACK, PieceType.KNIGHT) * knightPhase;
+        phase -= EvalAccumulator.count(acc, Side.WHITE, PieceType.BISHOP) * bishopPhase;
+        phase -= EvalAccumulator.count(acc, Side.BLACK, PieceType.BISHOP) * bishopPhase;
+        phase -= EvalAccumulator.count(acc, Side.WHITE, PieceType.ROOK) * rookPhase;
+        phase -= EvalAccumulator.count(acc, Side.BLACK, PieceType.ROOK) * rookPhase;
+        phase -= EvalAccumulator.count(acc, Side.WHITE, PieceType.QUEEN) * bishopPhase;
+        phase -= EvalAccumulator.count(acc, Side.BLACK, PieceType.QUEEN) * bishopPhase;
 
         return (phase * PHASE_CONSTANT + (totalPhase / 2)) / totalPhase;
     }
@@ -188,7 +196,7 @@ public class TaperedEvaluation {
      * @param s : Case sur laquelle se trouve la pièce
      * @return Score positionnel associé à la Pièce p sur la case s
      */
-    public static long getSquareValue(Piece p, Square s) {
+    public static int getSquareValue(Piece p, Square s) {
         switch (p.getPieceType()) {
             case PAWN -> {
                 return PawnTable[getPSTIndex(p.getPieceSide(), s)];
@@ -209,54 +217,24 @@ public class TaperedEvaluation {
                 return KingEndingTable[getPSTIndex(p.getPieceSide(), s)];
             }
             default -> {
-                return 0L;
+                return 0;
             }
         }
     }
 
-    private static long calculatePieceSquare(Board b, Side sideToMove) {
+    private static long calculatePieceSquare(int[] acc, Side sideToMove) {
 
-        long somme = 0L;
-        long pieces = b.getBitboard(sideToMove) & ~ b.getBitboard(Piece.make(sideToMove, PieceType.KING));
+        long somme = acc[EvalAccumulator.TAPERED_PST + sideToMove.ordinal()]; // PST score (hors roi)
 
-        // Variables pour compter au fil du parcours du bitboard le nombre de pièces par catégorie
-        int knightCount, bishopCount, rookCount, pawnCount, opponentPawnCount, queenCount;
-        knightCount = bishopCount = rookCount = pawnCount = queenCount = 0;
+        // Nombre de pièces par catégorie
+        int knightCount = EvalAccumulator.count(acc, sideToMove, PieceType.KNIGHT);
+        int bishopCount = EvalAccumulator.count(acc, sideToMove, PieceType.BISHOP);
+        int rookCount = EvalAccumulator.count(acc, sideToMove, PieceType.ROOK);
+        int pawnCount = EvalAccumulator.count(acc, sideToMove, PieceType.PAWN);
+        int queenCount = EvalAccumulator.count(acc, sideToMove, PieceType.QUEEN);
         Side opponentSide = (sideToMove == Side.WHITE) ? Side.BLACK : Side.WHITE;
 
-        while (pieces != 0L) {
-            // Scan Forward pour trouver l'index Least Significant 1 Bit
-            int index = Bitboard.bitScanForward(pieces);
-
-            // Extraction du Least Significant Bit
-            pieces = Bitboard.extractLsb(pieces);
-
-            Square sq = Square.squareAt(index); // Récupère la case échiquéenne
-            Piece currentPiece = b.getPiece(sq);
-
-            PieceType pt = currentPiece.getPieceType();
-            // Suite de if plutôt que switch pour tester .JAR sur PC UQAC (Java 8...)
-            if(pt == PieceType.PAWN) {
-                pawnCount += 1;
-            }
-            if(pt == PieceType.KNIGHT) {
-                knightCount += 1;
-            }
-            if(pt == PieceType.BISHOP) {
-                bishopCount += 1;
-            }
-            if(pt == PieceType.ROOK) {
-                rookCount += 1;
-            }
-            if(pt == PieceType.QUEEN) {
-                queenCount += 1;
-            }
-
-            somme += getSquareValue(currentPiece, sq); // PST score
-        }
-
-        somme += KingOpeningTable[getPSTIndex(sideToMove,
-                b.getPieceLocation(Piece.make(sideToMove, PieceType.KING)).get(0))];
+        somme += KingOpeningTable[getPSTIndex(sideToMove, acc[EvalAccumulator.KING + sideToMove.ordinal()])];
 
         // Ajustement de la valeur des cavalier en fonction du nombre de pions en jeu
         if (knightCount > 0) {
@@ -287,7 +265,7 @@ public class TaperedEvaluation {
             return 0;
         }
 
-        opponentPawnCount = bitCount(b.getBitboard(Piece.make(opponentSide, PieceType.PAWN)));
+        int opponentPawnCount = EvalAccumulator.count(acc, opponentSide, PieceType.PAWN);
         // MAT impossible avec seulement 2 cavaliers et pas de pions
         if (somme > 0 && pawnCount == 0 && opponentPawnCount == 0 && knightCount == 2 &&
                 bishopCount == 0 && rookCount == 0 && queenCount == 0) {
@@ -305,21 +283,25 @@ public class TaperedEvaluation {
      * @return int : index dans la Piece Square Table
      */
     private static int getPSTIndex(Side side, Square sq) {
-        return (side == Side.BLACK) ? sq.ordinal() : 63 - sq.ordinal();
+        return getPSTIndex(side, sq.ordinal());
+    }
+
+    private static int getPSTIndex(Side side, int sq) {
+        return (side == Side.BLACK) ? sq : 63 - sq;
     }
 
     /**
-     * Compte les bits correspondant à chacune des pièces du joueur s
+     * Score matériel du joueur s lu dans les accumulateurs
      *
-     * @param b : Etat du jeu actuel
+     * @param acc : Accumulateurs de la position
      * @param s : Joueur actuel
      * @return long : score matériel du joueur
      */
-    private static long countPieces(Board b, Side s) {
-        return (bitCount(b.getBitboard(Piece.make(s, PieceType.PAWN))) * PAWN_VALUE +
-                bitCount(b.getBitboard(Piece.make(s, PieceType.BISHOP))) * BISHOP_VALUE +
-                bitCount(b.getBitboard(Piece.make(s, PieceType.KNIGHT))) * KNIGHT_VALUE +
-                bitCount(b.getBitboard(Piece.make(s, PieceType.ROOK))) * ROOK_VALUE +
-                bitCount(b.getBitboard(Piece.make(s, PieceType.QUEEN))) * QUEEN_VALUE);
+    private static long countPieces(int[] acc, Side s) {
+        return (EvalAccumulator.count(acc, s, PieceType.PAWN) * PAWN_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.BISHOP) * BISHOP_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.KNIGHT) * KNIGHT_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.ROOK) * ROOK_VALUE +
+                EvalAccumulator.count(acc, s, PieceType.QUEEN) * QUEEN_VALUE);
     }
 }
\ No newline at end of file
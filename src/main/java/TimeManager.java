@@ -0,0 +1,169 @@
+import com.github.bhlangonijr.chesslib.Side;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Gestion du temps alloué à un coup à partir des paramètres de la commande UCI "go"
+ * (wtime, btime, winc, binc, movestogo, movetime, depth, nodes, infinite, ponder)
+ * En mode "ponder", le temps ne commence à compter qu'à la réception de "ponderhit".
+ */
+public class TimeManager {
+    private static final long DEFAULT_MOVE_TIME = 1000L; // "go" sans paramètre : 1 sec comme pour le tournoi
+    private static final long MOVE_OVERHEAD = 30L; // Marge pour la communication avec l'interface (ms)
+    private static final long MIN_TIME = 10L; // Temps minimal accordé à un coup (ms)
+    private static final int DEFAULT_MOVES_TO_GO = 30; // Nombre de coups restants estimé si inconnu
+    private static final int HARD_LIMIT_FACTOR = 4; // La limite dure vaut au plus 4 fois la limite souple
+
+    private final long softLimit; // Au-delà : pas de nouvelle itération (ms, -1 = aucune)
+    private final long hardLimit; // Au-delà : arrêt immédiat de la recherche (ms, -1 = aucune)
+    private final int maxDepth;
+    private final long maxNodes;
+    private final boolean infinite;
+
+    private volatile boolean pondering; // Réflexion pendant le temps de l'adversaire
+    private volatile long startTime; // Début du décompte du temps (ns)
+
+    private TimeManager(long softLimit, long hardLimit, int maxDepth, long maxNodes, boolean infinite) {
+        this.softLimit = softLimit;
+        this.hardLimit = hardLimit;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.infinite = infinite;
+        this.pondering = false;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Analyse la commande "go" et calcule les limites de la recherche pour le joueur side
+     *
+     * @param input : Commande "go ..." reçue
+     * @param side : Joueur qui doit jouer
+     * @param defaultMaxDepth : Profondeur maximale si "depth" n'est pas précisé
+     * @return TimeManager : Limites de la recherche
+     */
+    public static TimeManager fromGo(String input, Side side, int defaultMaxDepth) {
+        long wtime = -1, btime = -1, winc = 0, binc = 0, movetime = -1, nodes = -1;
+        int movestogo = -1, depth = -1;
+        boolean infinite = false;
+        boolean ponder = false;
+
+        String[] tokens = input.trim().split("\\s+");
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "wtime" -> wtime = Long.parseLong(tokens[++i]);
+                    case "btime" -> btime = Long.parseLong(tokens[++i]);
+                    case "winc" -> winc = Long.parseLong(tokens[++i]);
+                    case "binc" -> binc = Long.parseLong(tokens[++i]);
+                    case "movestogo" -> movestogo = Integer.parseInt(tokens[++i]);
+                    case "movetime" -> movetime = Long.parseLong(tokens[++i]);
+                    case "depth" -> depth = Integer.parseInt(tokens[++i]);
+                    case "nodes" -> nodes = Long.parseLong(tokens[++i]);
+                    case "infinite" -> infinite = true;
+                    case "ponder" -> ponder = true;
+                    default -> { } // paramètre ignoré
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("info string invalid go command : " + input);
+        }
+
+        TimeManager timeManager = fromLimits(wtime, btime, winc, binc, movestogo, movetime, depth, nodes, infinite,
+                side, defaultMaxDepth);
+        timeManager.pondering = ponder;
+        return timeManager;
+    }
+
+    private static TimeManager fromLimits(long wtime, long btime, long winc, long binc, int movestogo, long movetime,
+                                          int depth, long nodes, boolean infinite, Side side, int defaultMaxDepth) {
+        int maxDepth = (depth > 0) ? min(depth, defaultMaxDepth) : defaultMaxDepth;
+        long time = (side == Side.WHITE) ? wtime : btime;
+        long inc = (side == Side.WHITE) ? winc : binc;
+
+        if (infinite) {
+            return new TimeManager(-1, -1, maxDepth, nodes, true);
+        }
+        if (movetime >= 0) { // Temps fixe par coup
+            long limit = max(MIN_TIME, movetime - MOVE_OVERHEAD);
+            return new TimeManager(limit, limit, maxDepth, nodes, false);
+        }
+        if (time >= 0) { // Partie à la pendule
+            long available = max(MIN_TIME, time - MOVE_OVERHEAD);
+            int movesToGo = (movestogo > 0) ? movestogo : DEFAULT_MOVES_TO_GO;
+
+            long soft = min(available, time / movesToGo + inc * 3 / 4);
+            long hard = min(available / 2 + inc / 2, soft * HARD_LIMIT_FACTOR);
+            hard = max(MIN_TIME, min(available, hard));
+            return new TimeManager(max(MIN_TIME, min(soft, hard)), hard, maxDepth, nodes, false);
+        }
+        if (depth > 0 || nodes > 0) { // Recherche limitée uniquement en profondeur ou en noeuds
+            return new TimeManager(-1, -1, maxDepth, nodes, false);
+        }
+        return new TimeManager(DEFAULT_MOVE_TIME, DEFAULT_MOVE_TIME, maxDepth, nodes, false);
+    }
+
+    /**
+     * Indique si une nouvelle itération peut être lancée
+     *
+     * @param nodes : Noeuds explorés depuis le début de la recherche
+     * @param depth : Profondeur de la prochaine itération
+     * @return boolean : Vrai si on peut continuer
+     */
+    public boolean canContinue(long nodes, int depth) {
+        if (depth > this.maxDepth)
+            return false;
+        if (this.maxNodes > 0 && nodes >= this.maxNodes)
+            return false;
+        return this.pondering || this.softLimit < 0 || getElapsed() < this.softLimit;
+    }
+
+    /**
+     * L'adversaire a joué le coup attendu : le temps du coup commence à compter maintenant
+     */
+    public void ponderHit() {
+        this.startTime = System.nanoTime();
+        this.pondering = false;
+    }
+
+    /**
+     * @return long : Temps écoulé depuis le début de la recherche ou depuis "ponderhit" (ms)
+     */
+    public long getElapsed() {
+        return (System.nanoTime() - this.startTime) / 1_000_000L;
+    }
+
+    /**
+     * En mode "infinite" ou "ponder", le coup ne doit être envoyé qu'après "stop" ou "ponderhit"
+     */
+    public boolean mustWait() {
+        return this.infinite || this.pondering;
+    }
+
+    public boolean isPondering() {
+        return this.pondering;
+    }
+
+    public boolean hasHardLimit() {
+        return this.hardLimit >= 0;
+    }
+
+    public long getHardLimit() {
+        return this.hardLimit;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * @return long : Nombre de noeuds maximal ("go nodes", <= 0 : aucune limite)
+     */
+    public long getMaxNodes() {
+        return this.maxNodes;
+    }
+
+    public boolean isInfinite() {
+        return this.infinite;
+    }
+}
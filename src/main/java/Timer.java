@@ -1,31 +1,32 @@
-
 /**
- * Classe implémentée pour respecter la contraine d'1 seconde lors du tournoi
+ * Classe implémentée pour respecter la limite de temps dure d'un coup (1 seconde lors du tournoi)
+ * Les threads de recherche vérifient aussi cette limite (Stop.poll) : le Timer arrête la recherche même si aucun
+ * thread n'explore de noeuds, ou s'il n'est réveillé qu'en retard par un système chargé.
  */
 public class Timer extends Thread {
 
-    private final LeftSideNode lsn;
     private final Stop stop;
+    private final long limit; // Temps accordé en ms
 
-    public Timer(LeftSideNode lsn, Stop stop) {
-        this.lsn = lsn;
+    public Timer(Stop stop, long limit) {
         this.stop = stop;
+        this.limit = limit;
+        this.setDaemon(true); // n'empêche pas la fermeture du moteur
     }
 
     /**
-     * On lance un timer d'1 sec dans un thread séparé qui va se réveiller et arrêter la recherche si celle-ci
+     * On lance un timer dans un thread séparé qui va se réveiller et arrêter la recherche si celle-ci
      * n'est pas déjà terminée.
      */
     public void run() {
         try {
-            Thread.sleep(1000); // Timer à modifier pour augmenter le temps de recherche
+            Thread.sleep(this.limit);
 
             if (!this.stop.getStop()) {
                 this.stop.setTrueStop();
-                this.lsn.stopAllThread();
             }
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            // Recherche terminée avant la fin du timer
         }
     }
 }
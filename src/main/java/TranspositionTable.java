@@ -1,4 +1,5 @@
-import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.Square;
 import com.github.bhlangonijr.chesslib.move.Move;
 
 import java.util.*;
@@ -6,131 +7,167 @@ import java.util.*;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
+/**
+ * Table de transpositions de taille fixe partagée par tous les threads de la recherche.
+ * Chaque entrée occupe deux long consécutifs : (clé de vérification ^ données) puis données. Un thread qui lit une
+ * entrée en cours d'écriture par un autre thread obtient une clé incohérente et considère simplement l'entrée absente
+ * (schéma "lockless" de Hyatt), ce qui évite toute synchronisation.
+ * L'index vient de la clé Zobrist de chesslib et la vérification de la clé Polyglot : deux clés indépendantes
+ * rendent les collisions beaucoup plus rares.
+ * Les scores sont enregistrés du point de vue du joueur au trait (negamax).
+ * Inspiré de : <a href="https://www.chessprogramming.org/Shared_Hash_Table#Lockless">...</a>
+ */
 public class TranspositionTable {
-    private final Map<Long,hashNode> transpositionTable = new HashMap<>(64000); // Taille arbitraire
-
-    public static class hashNode{
-        protected double value;
-        protected int depth;
-        protected int type; // 0 = noeud exact / 1 = fourchette haute / -1 = fourchette basse
-        public hashNode(double value, int depth, int type){
-            this.value = value;
-            this.depth = depth;
-            this.type = type;
-        }
-    }
+    public static final int EXACT = 0; // noeud exact
+    public static final int UPPER = 1; // fourchette haute (score <= alpha)
+    public static final int LOWER = -1; // fourchette basse (score >= beta)
+
+    private static final int ENTRY_SIZE = 16; // 2 long par entrée
+
+    // Découpage des données d'une entrée :
+    // bits 0-31 score | bits 32-39 profondeur | bits 40-41 type (+2) | bits 42-57 move
+    private static final int DEPTH_SHIFT = 32;
+    private static final int TYPE_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
 
-    public double searchHashNode(long hashKey, int depth, double alpha, double beta)
-    {
-        if (transpositionTable.containsKey(hashKey))
-        {
-            hashNode current = new hashNode(transpositionTable.get(hashKey).value,
-                    transpositionTable.get(hashKey).depth,
-                    transpositionTable.get(hashKey).type);
-
-            if (current.depth > depth)
-            {
-                if (current.type == 0) // Noeud exact
-                {
-                    return current.value;
-                }
-                if (current.type == 1 && current.value <= alpha) // Fourchette haute
-                {
-                    return alpha;
-                }
-                if (current.type == -1 && current.value >= beta) // Fourchette basse
-                {
-                    return beta;
-                }
-            }
-        }
-        return 99999999999.0; // Valeur arbitraire pour indiquer l'échec de la recherche
+    private static final Piece[] PIECES = Piece.values();
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * @param sizeMb : Taille de la table en Mo (arrondie à la puissance de 2 inférieure)
+     */
+    public TranspositionTable(int sizeMb) {
+        long entries = Long.highestOneBit(max(1L, (long) sizeMb * 1024 * 1024 / ENTRY_SIZE));
+        entries = min(entries, 1L << 29); // limite de la taille d'un tableau java
+        this.table = new long[(int) entries * 2];
+        this.mask = (int) entries - 1;
     }
 
-    public void recordHash(long hashKey, int depth, double val, int type)
-    {
-        transpositionTable.put(hashKey, new hashNode(val, depth, type)); // insère un élément dans la TT
+    /**
+     * Recherche une entrée pour la position
+     *
+     * @param hashKey : Clé Zobrist de la position (index)
+     * @param lockKey : Clé Polyglot de la position (vérification)
+     * @return long : données de l'entrée, 0 si absente ou corrompue
+     */
+    public long probe(long hashKey, long lockKey) {
+        int index = index(hashKey);
+        long data = table[index + 1];
+        long key = table[index];
+
+        if (data != 0L && (key ^ data) == lockKey)
+            return data;
+        return 0L;
     }
 
     /**
-     * Minimax à profondeur limitée avec élagage alpha beta "sans faille" (fail-soft) + Transpostion Table
-     * (Fonction d'exemple car pas assez expérimenté avec la table de transpostions)
+     * Cherche un score utilisable directement pour couper la recherche
      *
-     * @param board : Position de jeu actuelle
+     * @param data : Données renvoyées par probe
      * @param depth : Profondeur restante de recherche
      * @param alpha : Borne alpha pour élagage
      * @param beta : Borne beta pour élagage
-     * @param playerToMaximize : Booléen (Vrai = BLanc, Noir sinon)
-     * @return : Record (Evaluation, bestMove, NodesExplored)
+     * @return boolean : Vrai si le score de l'entrée peut être renvoyé tel quel
+     */
+    public static boolean isCutOff(long data, int depth, int alpha, int beta) {
+        if (data == 0L || getDepth(data) < depth)
+            return false;
+
+        int type = getType(data);
+        int score = getScore(data);
+
+        return type == EXACT || (type == UPPER && score <= alpha) || (type == LOWER && score >= beta);
+    }
+
+    /**
+     * Enregistre le résultat d'une recherche (remplace l'entrée sauf si elle concerne la même position
+     * avec une profondeur supérieure)
+     *
+     * @param hashKey : Clé Zobrist de la position (index)
+     * @param lockKey : Clé Polyglot de la position (vérification)
+     * @param depth : Profondeur de la recherche
+     * @param score : Evaluation trouvée
+     * @param type : EXACT, UPPER ou LOWER
+     * @param bestMove : Meilleur coup trouvé (peut être null)
+     */
+    public void store(long hashKey, long lockKey, int depth, int score, int type, Move bestMove) {
+        int index = index(hashKey);
+        long old = table[index + 1];
+
+        if (old != 0L && (table[index] ^ old) == lockKey && getDepth(old) > depth)
+            return;
+
+        long data = (score & 0xFFFFFFFFL)
+                | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                | ((long) (type + 2) << TYPE_SHIFT)
+                | ((long) encodeMove(bestMove) << MOVE_SHIFT);
+
+        table[index] = lockKey ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * Vide la table
      */
-    public Result alphaBetaTranspositionTable(Board board, Integer depth, Double alpha, Double beta, Boolean playerToMaximize) {
-
-        double hashvalue = searchHashNode(board.getIncrementalHashKey(), depth, alpha, beta); // recherche dans la table
-        if (hashvalue != 99999999999.0) // si hashValue cohérent
-        {
-            return new Result(hashvalue, null, 0);
-        }
-
-        // Cas Trivial
-        if (depth == 0 || board.isDraw() || board.isMated() || board.isStaleMate()) {
-            return new Result(BasicEvaluation.evaluate(board), null, 0);
-        }
-
-        // Génère la liste des mouvements possibles
-        List<Move> children = board.legalMoves();
-
-        // Trie du mouvement le plus intéressant au moins intéressant
-        children.sort(Comparator.comparingInt((Move m) -> (int) Node.getMoveScore(board, m)));
-        Collections.reverse(children);
-
-        Move bestMove = children.get(0);
-
-        if (playerToMaximize) {
-            int type = 1; // type de noeud pour TT
-            double maxEval = alpha;
-
-            for (Move move : children) {
-                board.doMove(move);
-                double currentEval = alphaBetaTranspositionTable(board, depth - 1, alpha, beta, false).num();
-                board.undoMove();
-
-                if (maxEval < currentEval) {
-                    type = 0; // MAJ du type de noeud TT
-                    maxEval = currentEval;
-                    bestMove = move;
-                }
-
-                alpha = max(alpha, maxEval);
-
-                if (beta <= alpha) {
-                    break;
-                }
-            }
-            recordHash(board.getIncrementalHashKey(), depth, alpha, type); // ajout du noeud dans la TT
-            return new Result(maxEval, bestMove, 0);
-        } else {
-            int type = -1; // type de noeud pour TT
-            double minEval = beta;
-
-            for (Move move : children) {
-                board.doMove(move);
-                double currentEval = alphaBetaTranspositionTable(board, depth - 1, alpha, beta, true).num();
-                board.undoMove();
-
-                if (currentEval < minEval) {
-                    type = 0; // MAJ du type de noeud TT
-                    minEval = currentEval;
-                    bestMove = move;
-                }
-
-                beta = min(beta, minEval);
-
-                if (beta <= alpha) {
-                    break;
-                }
-            }
-            recordHash(board.getIncrementalHashKey(), depth, beta, type); // ajout du noeud dans la TT
-            return new Result(minEval, bestMove, 0);
-        }
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    public static int getScore(long data) {
+        return (int) data;
+    }
+
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int getType(long data) {
+        return (int) ((data >>> TYPE_SHIFT) & 0x3) - 2;
+    }
+
+    /**
+     * @param data : Données renvoyées par probe
+     * @return Move : Meilleur coup enregistré, null si aucun
+     */
+    public static Move getMove(long data) {
+        int move = getMoveCode(data);
+        if (move == 0)
+            return null;
+
+        return new Move(Square.squareAt(move & 0x3F), Square.squareAt((move >>> 6) & 0x3F),
+                PIECES[(move >>> 12) & 0xF]);
+    }
+
+    /**
+     * @param data : Données renvoyées par probe
+     * @return int : Meilleur coup enregistré sous forme encodée (0 si aucun), comparable à encodeMove sans allocation
+     */
+    public static int getMoveCode(long data) {
+        return (int) (data >>> MOVE_SHIFT) & 0xFFFF;
+    }
+
+    /**
+     * Type de l'entrée à enregistrer en fonction de la fenêtre de recherche initiale
+     */
+    public static int getType(int score, int alpha, int beta) {
+        if (score <= alpha)
+            return UPPER;
+        if (score >= beta)
+            return LOWER;
+        return EXACT;
+    }
+
+    private int index(long hashKey) {
+        return ((int) hashKey & this.mask) << 1;
+    }
+
+    // bits 0-5 from | bits 6-11 to | bits 12-15 promotion (Piece.NONE si aucune)
+    public static int encodeMove(Move move) {
+        if (move == null)
+            return 0;
+
+        return move.getFrom().ordinal() | (move.getTo().ordinal() << 6) | (move.getPromotion().ordinal() << 12);
     }
 }
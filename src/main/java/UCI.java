@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.time.Instant;
 
 import java.util.*;
+import java.util.concurrent.Future;
 
 import com.github.bhlangonijr.chesslib.Board;
 import com.github.bhlangonijr.chesslib.Side;
@@ -12,13 +13,32 @@ import com.github.bhlangonijr.chesslib.move.MoveList;
 
 public class UCI {
     static String ENGINENAME="PVS";
-    private static boolean continueOpening = true; // true : utilise openingbook / false : non
+    private static volatile boolean continueOpening = true; // true : utilise openingbook / false : non
+    private static SearchThread searchThread = null; // Recherche en cours
+    private static final BookManager books = new BookManager(); // Livres chargés une seule fois
+
+    // Taille de la table de transpositions en Mo (option UCI "Hash")
+    static final int HASH_DEFAULT = 64;
+    static final int HASH_MIN = 1;
+    static final int HASH_MAX = 4096;
+    private static TranspositionTable transpositionTable = new TranspositionTable(HASH_DEFAULT); // Partagée par tous les threads
+
+    // Approfondissement itératif
+    private static final int MAX_DEPTH = 64;
+    private static final int ASPIRATION_MIN_DEPTH = 4; // Profondeur à partir de laquelle on utilise une fenêtre réduite
+    private static final int ASPIRATION_WINDOW = 50; // Demi-largeur de la fenêtre d'aspiration (centipions)
+
+    // Recherche parallèle (option UCI "SMP Mode") : PV splitting (LeftSideNode) ou Lazy SMP
+    static final String SMP_PVS = "PVS";
+    static final String SMP_LAZY = "LazySMP";
+    private static volatile boolean lazySMP = false;
+
     public static void uciCommunication() {
         Scanner input = new Scanner(System.in); // on récupère les instructions d'ARENA
 
         Board board = new Board();
 
-        while (true) {
+        while (input.hasNextLine()) {
             String inputString=input.nextLine();
             if ("uci".equals(inputString)) {
                 inputUCI();
@@ -28,23 +48,115 @@ public class UCI {
                 inputIsReady();
             } else if ("ucinewgame".equals(inputString)) {
                 continueOpening = true; // réinitialise le booléen car nouvelle partie
+                books.newGame();
+                SearchStack.newGame();
                 inputUCINewGame(board); // réinitialise le board
             } else if (inputString.startsWith("position")) {
                 inputPosition(inputString, board);
             } else if (inputString.startsWith("go")) {
-                inputGo(board);
+                inputGo(inputString, board);
+            } else if ("stop".equals(inputString)) {
+                inputStop();
+            } else if ("ponderhit".equals(inputString)) {
+                inputPonderHit();
+            } else if (inputString.startsWith("bench")) {
+                inputBench(inputString);
+            } else if ("quit".equals(inputString)) {
+                break;
             }
         }
+        inputStop(); // Fin du moteur : on termine proprement la recherche en cours
     }
 
     public static void inputUCI() {
         System.out.println("id name " + ENGINENAME);
         System.out.println("id author Clément & Justin");
+        System.out.println("option name Hash type spin default " + HASH_DEFAULT + " min " + HASH_MIN + " max " + HASH_MAX);
+        System.out.println("option name Clear Hash type button");
+        System.out.println("option name Threads type spin default " + SearchPool.THREADS_DEFAULT + " min "
+                + SearchPool.THREADS_MIN + " max " + SearchPool.THREADS_MAX);
+        System.out.println("option name SMP Mode type combo default " + SMP_PVS + " var " + SMP_PVS + " var " + SMP_LAZY);
+        System.out.println("option name Ponder type check default false");
+        System.out.println("option name Null Move type check default " + Selectivity.isNullMove());
+        System.out.println("option name LMR type check default " + Selectivity.isLateMoveReductions());
+        System.out.println("option name Futility type check default " + Selectivity.isFutility());
+        System.out.println("option name Evaluation type combo default " + Evaluators.DEFAULT + Evaluators.getNames());
+        System.out.println("option name Eval Cache type spin default " + Evaluators.CACHE_DEFAULT + " min "
+                + Evaluators.CACHE_MIN + " max " + Evaluators.CACHE_MAX);
+        System.out.println("option name EvalFile type string default " + NNUEEvaluation.DEFAULT_FILE);
+        System.out.println("option name Book File type string default " + BookManager.DEFAULT_BOOKS);
+        System.out.println("option name Book Selection type combo default " + BookManager.SELECTION_BEST + " var "
+                + BookManager.SELECTION_BEST + " var " + BookManager.SELECTION_WEIGHTED);
         System.out.println("uciok");
     }
 
+    /**
+     * Modifie une option du moteur : "setoption name [id] (value [x])"
+     *
+     * @param inputString : Commande envoyée par l'interface
+     */
     public static void inputSetOption(String inputString) {
-        //set options
+        int nameIndex = inputString.indexOf("name ");
+        if (nameIndex == -1)
+            return;
+
+        int valueIndex = inputString.indexOf(" value ");
+        String name = (valueIndex == -1) ? inputString.substring(nameIndex + 5).trim() :
+                inputString.substring(nameIndex + 5, valueIndex).trim();
+        String value = (valueIndex == -1) ? "" : inputString.substring(valueIndex + 7).trim();
+
+        try {
+            if ("Hash".equalsIgnoreCase(name)) {
+                int size = Math.max(HASH_MIN, Math.min(HASH_MAX, Integer.parseInt(value)));
+                transpositionTable = null; // libère l'ancienne table avant d'allouer la nouvelle
+                transpositionTable = new TranspositionTable(size);
+            } else if ("Clear Hash".equalsIgnoreCase(name)) {
+                transpositionTable.clear();
+            } else if ("Threads".equalsIgnoreCase(name)) {
+                SearchPool.setThreads(Integer.parseInt(value));
+            } else if ("SMP Mode".equalsIgnoreCase(name)) {
+                lazySMP = SMP_LAZY.equalsIgnoreCase(value);
+                SplitPoint.setEnabled(!lazySMP); // Lazy SMP : les threads ne partagent pas leurs noeuds
+            } else if ("Null Move".equalsIgnoreCase(name)) {
+                Selectivity.setNullMove(Boolean.parseBoolean(value));
+            } else if ("LMR".equalsIgnoreCase(name)) {
+                Selectivity.setLateMoveReductions(Boolean.parseBoolean(value));
+            } else if ("Futility".equalsIgnoreCase(name)) {
+                Selectivity.setFutility(Boolean.parseBoolean(value));
+            } else if ("Evaluation".equalsIgnoreCase(name)) {
+                Evaluators.select(value);
+            } else if ("Eval Cache".equalsIgnoreCase(name)) {
+                Evaluators.setCacheSize(Integer.parseInt(value));
+            } else if ("EvalFile".equalsIgnoreCase(name)) {
+                Evaluators.setNetworkFile(value);
+            } else if ("Book File".equalsIgnoreCase(name)) {
+                books.setBooks(value);
+                continueOpening = true;
+            } else if ("Book Selection".equalsIgnoreCase(name)) {
+                books.setSelection(value);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("info string invalid value for option " + name + " : " + value);
+        }
+    }
+
+    /**
+     * Commande "bench [depth]" : recherche à profondeur fixe des positions de Bench (signature et NPS)
+     *
+     * @param inputString : Commande reçue
+     */
+    public static void inputBench(String inputString) {
+        inputStop(); // La pool est réduite à un thread pendant le bench
+
+        String[] tokens = inputString.trim().split("\\s+");
+        int depth = Bench.DEFAULT_DEPTH;
+        try {
+            if (tokens.length > 1)
+                depth = Math.max(1, Math.min(MAX_DEPTH, Integer.parseInt(tokens[1])));
+        } catch (NumberFormatException e) {
+            System.out.println("info string invalid bench depth : " + tokens[1]);
+        }
+        Bench.run(depth);
     }
 
     public static void inputIsReady() {
@@ -87,50 +199,184 @@ public class UCI {
     }
 
     /**
-     * Affiche le meilleur coup pour le prochain joueur en un temps défini
+     * Recherche le meilleur coup pour le prochain joueur dans les limites définies.
+     * Approfondissement itératif : on recherche à la profondeur 1, 2, 3... jusqu'à la fin du temps accordé et on
+     * renvoie le coup de la dernière itération terminée. Chaque itération part du coup de l'itération précédente
+     * (table de transpositions) avec une fenêtre d'aspiration centrée sur son score.
+     * En mode Lazy SMP, les autres threads de la pool mènent leur propre recherche en parallèle et le thread
+     * principal profite de leurs résultats à travers la table de transpositions.
      *
      * @param board : Etat du jeu actuel sur Arena
-     * @param depth : Profondeur totale de recherche
+     * @param timeManager : Limites de la recherche (temps, profondeur, noeuds)
+     * @param stop : Arrêt de la recherche (Timer ou commande "stop")
+     * @return Result : Résultat de la dernière itération terminée
      */
-    public static void search(Board board, int depth) {
-        Stop stop = new Stop(); // Timer d'arrêt (1 sec pour le tournoi)
+    public static Result search(Board board, TimeManager timeManager, Stop stop) {
+        boolean white = board.getSideToMove() == Side.WHITE;
+        Instant start = Instant.now();
+        PawnHashTable.resetStats();
+        SearchStack.newSearch(); // Historique de tri des coups vieilli par chaque thread
+        stop.setMaxNodes(timeManager.getMaxNodes()); // Limite de noeuds vérifiée aussi pendant les itérations
 
-        // PVS
-        LeftSideNode root = new LeftSideNode(board, depth, -Double.MAX_VALUE, Double.MAX_VALUE, board.getSideToMove() == Side.WHITE, stop);
+        Result best = null; // Résultat de la dernière itération terminée
+        Result r = null;
+        int completedDepth = 0;
+        long nodes = 0;
 
-        Timer timer = new Timer(root, stop);
-        timer.start(); // Lance le timer dans un thread à part
-        Instant start = Instant.now();
-        Result r = root.PVS(); // Resultat = Racine de l'arbre
+        boolean lazy = lazySMP;
+        Stop helperStop = new Stop(stop); // Arrêt des threads auxiliaires du Lazy SMP, noeuds comptés dans stop
+        List<Future<Integer>> helpers = lazy ? LazySMP.startHelpers(board, SearchPool.getThreads() - 1,
+                timeManager.getMaxDepth(), helperStop, transpositionTable) : List.of();
+
+        for (int depth = 1; !stop.getStop() && timeManager.canContinue(nodes, depth); depth++) {
+            // Fenêtre d'aspiration autour du score précédent (fenêtre complète pour les premières itérations)
+            int alpha = (best == null || depth < ASPIRATION_MIN_DEPTH) ? -Node.INFINITY : best.num() - ASPIRATION_WINDOW;
+            int beta = (best == null || depth < ASPIRATION_MIN_DEPTH) ? Node.INFINITY : best.num() + ASPIRATION_WINDOW;
+
+            while (true) {
+                r = lazy ? searchRoot(board, depth, alpha, beta, white, stop) : searchPVS(board, depth, alpha, beta, white, stop);
+                nodes += r.nodeExplored();
+
+                if (stop.getStop()) {
+                    break; // Itération incomplète : ignorée
+                }
+
+                if (r.num() <= alpha && alpha != -Node.INFINITY) { // Echec bas : on ré-ouvre la fenêtre
+                    alpha = -Node.INFINITY;
+                } else if (r.num() >= beta && beta != Node.INFINITY) { // Echec haut
+                    beta = Node.INFINITY;
+                } else {
+                    best = r;
+                    completedDepth = depth;
+                    break;
+                }
+            }
+
+            if (best != null && completedDepth == depth) {
+                long time = Duration.between(start, Instant.now()).toMillis();
+                int score = white ? best.num() : -best.num(); // Score du point de vue du joueur
+                System.out.println("info depth " + depth + " score cp " + score + " nodes " + nodes
+                        + " time " + time + " pv " + best.bestMove());
+
+                if (!timeManager.isInfinite() && board.legalMoves().size() == 1) {
+                    break; // Coup forcé : inutile de chercher plus loin
+                }
+            }
+        }
+        nodes += LazySMP.stopHelpers(helpers, helperStop);
         Instant finish = Instant.now();
 
-        if (!stop.getStop()) { // Si on a trouvé un coup avant la fin du timer
-            stop.setTrueStop();
-            timer.interrupt();
+        if (best == null) { // Aucune itération terminée : on garde le coup de la recherche interrompue
+            List<Move> moves = board.legalMoves();
+            best = (r != null) ? r : new Result(0, moves.isEmpty() ? null : moves.get(0), 0);
         }
 
-        System.out.println("bestmove " + r.bestMove());
-        System.out.println("LeftSideNode found in " + Duration.between(start, finish).toMillis() + "ms | " + r.nodeExplored() + " nodes explored | score : " + r.num() + " | depth = " + depth );
+        double pawnHitRate = PawnHashTable.getHitRate();
+        if (pawnHitRate >= 0) {
+            System.out.printf(Locale.ROOT, "info string pawn hash hit rate %.1f%%%n", pawnHitRate);
+        }
+        System.out.println("info string LeftSideNode found in " + Duration.between(start, finish).toMillis() + "ms | " + nodes + " nodes explored | score : " + best.num() + " | depth = " + completedDepth);
+        return best;
     }
-    public static void inputGo(Board board) {
-        int depth = 5;
-        
-        if(continueOpening) { // Si on souhaite utiliser l'opening book et que le dernier coup trouvée != NULL
-            Instant start = Instant.now();
-            openingBook rb = new openingBook();
-            Move move = rb.getMove(board); // récupère le premier move trouvé
-
-            if (move == null) { // Si null fin de l'opening
-                continueOpening = false;
-                search(board, depth); // PVS
-            }
-            else {
-                Instant finish = Instant.now();
-                System.out.println("bestmove " + move);
-                System.out.println("found in " + Duration.between(start, finish).toMillis() + "ms");
-            }
+
+    /**
+     * Une itération avec le PV splitting : les fils de chaque noeud le plus à gauche sont répartis dans la pool,
+     * puis partagés à n'importe quelle profondeur (Young Brothers Wait) tant que des threads sont inactifs
+     */
+    private static Result searchPVS(Board board, int depth, int alpha, int beta, boolean white, Stop stop) {
+        LeftSideNode root = new LeftSideNode(board, depth, alpha, beta, white, stop, transpositionTable);
+        return root.PVS(); // Resultat = Racine de l'arbre
+    }
+
+    /**
+     * Une itération du thread principal du Lazy SMP (alpha beta sur un seul thread)
+     */
+    private static Result searchRoot(Board board, int depth, int alpha, int beta, boolean white, Stop stop) {
+        Node root = new Node(board, depth, white, null, alpha, beta, stop, transpositionTable);
+        int score = root.alphaBetaCutOff(board, depth, alpha, beta, white);
+
+        List<Move> moves = board.legalMoves();
+        Move move = root.getBestMove();
+        if (move == null || !moves.contains(move)) { // Coupure par la table sans coup utilisable
+            move = moves.isEmpty() ? null : moves.get(0);
+        }
+        return new Result(score, move, root.getNodesExplored());
+    }
+
+    /**
+     * Cherche le coup à jouer dans le livre d'ouvertures tant que la partie n'en est pas sortie
+     *
+     * @param board : Etat du jeu actuel
+     * @return Move : Coup du livre, null si la position n'y figure pas
+     */
+    public static Move getBookMove(Board board) {
+        if (!continueOpening) // Si on souhaite utiliser l'opening book et que le dernier coup trouvée != NULL
+            return null;
+
+        Instant start = Instant.now();
+        Move move = books.getMove(board); // coup choisi parmi ceux du livre le plus prioritaire
+
+        if (move == null) { // Si null fin de l'opening
+            continueOpening = false;
+        } else {
+            Instant finish = Instant.now();
+            System.out.println("info string found in " + Duration.between(start, finish).toMillis() + "ms");
+        }
+        return move;
+    }
+
+    /**
+     * Coup attendu de l'adversaire après move, lu dans la table de transpositions (pour "go ponder")
+     *
+     * @param board : Etat du jeu actuel
+     * @param move : Coup choisi par le moteur
+     * @return Move : Réponse attendue, null si inconnue
+     */
+    public static Move getPonderMove(Board board, Move move) {
+        board.doMove(move);
+        Move ponderMove = TranspositionTable.getMove(transpositionTable.probe(board.getIncrementalHashKey(),
+                PolyglotKey.compute(board)));
+        if (ponderMove != null && !board.legalMoves().contains(ponderMove)) {
+            ponderMove = null;
+        }
+        board.undoMove();
+        return ponderMove;
+    }
+
+    /**
+     * Lance la recherche dans un thread à part : la boucle UCI reste disponible pour "stop", "ponderhit",
+     * "isready" et "quit" pendant la réflexion.
+     *
+     * @param inputString : Commande "go ..." reçue
+     * @param board : Etat du jeu actuel sur Arena
+     */
+    public static void inputGo(String inputString, Board board) {
+        inputStop(); // Une seule recherche à la fois
+
+        TimeManager timeManager = TimeManager.fromGo(inputString, board.getSideToMove(), MAX_DEPTH);
+        searchThread = new SearchThread(board.clone(), timeManager);
+        searchThread.start();
+    }
+
+    /**
+     * Arrête la recherche en cours et attend l'envoi de "bestmove"
+     */
+    public static void inputStop() {
+        if (searchThread == null)
+            return;
+
+        searchThread.stopSearch();
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    public static void inputPonderHit() {
+        if (searchThread != null) {
+            searchThread.ponderHit();
         }
-        else
-            search(board, depth); // PVS
     }
-}
\ No newline at end of file
+}
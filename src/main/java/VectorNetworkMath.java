@@ -0,0 +1,87 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Opérations du réseau avec l'API Vector du JDK (--add-modules jdk.incubator.vector) : la taille des vecteurs est
+ * celle préférée par la machine (SSE/AVX2/AVX-512 sur x86, NEON sur ARM). Les éléments restants, si la couche
+ * cachée n'est pas un multiple de cette taille, sont traités un par un.
+ */
+public class VectorNetworkMath implements NetworkMath {
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    // Même taille en bits : un vecteur de short donne deux vecteurs d'int
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, SHORTS.vectorShape());
+    private static final int PARTS = SHORTS.length() / INTS.length();
+
+    @Override
+    public void addSub(short[] from, short[] to, int offset, short[] weights, int added, int removed, int length) {
+        int bound = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, from, offset + i)
+                    .add(ShortVector.fromArray(SHORTS, weights, added + i))
+                    .sub(ShortVector.fromArray(SHORTS, weights, removed + i))
+                    .intoArray(to, offset + i);
+        }
+        for (; i < length; i++) {
+            to[offset + i] = (short) (from[offset + i] + weights[added + i] - weights[removed + i]);
+        }
+    }
+
+    @Override
+    public void add(short[] acc, int offset, short[] weights, int weight, int length) {
+        int bound = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, acc, offset + i)
+                    .add(ShortVector.fromArray(SHORTS, weights, weight + i))
+                    .intoArray(acc, offset + i);
+        }
+        for (; i < length; i++) {
+            acc[offset + i] += weights[weight + i];
+        }
+    }
+
+    @Override
+    public void sub(short[] acc, int offset, short[] weights, int weight, int length) {
+        int bound = SHORTS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, acc, offset + i)
+                    .sub(ShortVector.fromArray(SHORTS, weights, weight + i))
+                    .intoArray(acc, offset + i);
+        }
+        for (; i < length; i++) {
+            acc[offset + i] -= weights[weight + i];
+        }
+    }
+
+    @Override
+    public int activate(short[] acc, int offset, short[] weights, int weight, int length, int max) {
+        int bound = SHORTS.loopBound(length);
+        IntVector sum = IntVector.zero(INTS);
+        int i = 0;
+        for (; i < bound; i += SHORTS.length()) {
+            ShortVector value = ShortVector.fromArray(SHORTS, acc, offset + i).max((short) 0).min((short) max);
+            ShortVector w = ShortVector.fromArray(SHORTS, weights, weight + i);
+            // Les produits dépassent un short : calcul sur des int
+            for (int part = 0; part < PARTS; part++) {
+                IntVector v = (IntVector) value.convertShape(VectorOperators.S2I, INTS, part);
+                IntVector p = (IntVector) w.convertShape(VectorOperators.S2I, INTS, part);
+                sum = sum.add(v.mul(p));
+            }
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            int value = Math.max(0, Math.min(max, acc[offset + i]));
+            result += value * weights[weight + i];
+        }
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return "vector " + SHORTS.vectorBitSize() + " bits";
+    }
+}
@@ -1,28 +1,104 @@
 
 import com.github.bhlangonijr.chesslib.Board;
+import com.github.bhlangonijr.chesslib.Piece;
+import com.github.bhlangonijr.chesslib.PieceType;
+import com.github.bhlangonijr.chesslib.Square;
 import com.github.bhlangonijr.chesslib.move.Move;
 
-import java.io.BufferedInputStream;
-import java.io.DataInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Classe permettant la lecture d'un livre d'ouvertures Polyglot
+ * Le livre est chargé une seule fois : projeté en mémoire (fichier) ou copié dans un ByteBuffer (ressource du
+ * classpath). Les entrées étant triées par clé, une position est cherchée par dichotomie.
  * Code adapté de: <a href="https://github.com/albertoruibal/carballo">...</a>
  */
 public class openingBook {
+    private static final int ENTRY_SIZE = 16; // clé (8) | move (2) | poids (2) | learn (4)
+    private static final Square[] SQUARES = Square.values();
+    private static final PieceType[] PROMOTIONS = {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+            PieceType.QUEEN};
 
     private final String bookName;
+    private final ByteBuffer entries; // null si le livre est introuvable
+    private final int size; // Nombre d'entrées
 
     List<Move> moves = new ArrayList<>();
-    List<Short> weights = new ArrayList<>();
+    int[] weights = new int[16]; // Poids non signés, weights[i] est celui de moves.get(i) (agrandi si besoin)
     long totalWeight;
 
     public openingBook() {
-        bookName = "book.bin";
-    } // livre trouvable dans src/main/resources/book.bin
+        this("book.bin"); // livre trouvable dans src/main/resources/book.bin
+    }
+
+    /**
+     * @param bookName : Chemin d'un fichier Polyglot, ou nom d'une ressource du classpath
+     */
+    public openingBook(String bookName) {
+        this.bookName = bookName;
+        this.entries = load(bookName);
+        this.size = (this.entries == null) ? 0 : this.entries.capacity() / ENTRY_SIZE;
+    }
+
+    private ByteBuffer load(String name) {
+        try {
+            Path path = Path.of(name);
+            if (Files.isRegularFile(path)) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+        } catch (IOException | InvalidPathException e) {
+            // on essaie le classpath
+        }
+
+        try (InputStream bookIs = getClass().getResourceAsStream(name)) {
+            return (bookIs == null) ? null : ByteBuffer.wrap(bookIs.readAllBytes());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return boolean : Vrai si le livre a pu être chargé
+     */
+    public boolean isLoaded() {
+        return this.entries != null;
+    }
+
+    public String getBookName() {
+        return this.bookName;
+    }
+
+    /**
+     * Recherche par dichotomie de la première entrée dont la clé est >= key (clés triées comme des entiers non
+     * signés)
+     *
+     * @param key : Clé Polyglot de la position
+     * @return int : Index de l'entrée (size si aucune)
+     */
+    private int findFirst(long key) {
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(this.entries.getLong(mid * ENTRY_SIZE), key) < 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
 
     /**
      * "move" is a bit field with the following meaning (bit 0 is the least significant bit)
@@ -39,66 +115,72 @@ public class openingBook {
      * bishop     2
      * rook       3
      * queen      4
+     * Castling is encoded as the king capturing its own rook (e1h1), chesslib expects the king's destination (e1g1).
+     * Squares are decoded directly from the bit field (same numbering as chesslib: a1 = 0, h8 = 63).
      *
-     * @param move a move
-     * @return string
+     * @param board : Position actuelle
+     * @param move : Coup Polyglot
+     * @return Move : Coup chesslib (pas forcément légal)
      */
-    private String int2MoveString(short move) {
-        StringBuilder sb = new StringBuilder();
-        sb.append((char) ('a' + ((move >> 6) & 0x7)));
-        sb.append(((move >> 9) & 0x7) + 1);
-        sb.append((char) ('a' + (move & 0x7)));
-        sb.append(((move >> 3) & 0x7) + 1);
-        if (((move >> 12) & 0x7) != 0) sb.append("NBRQ".charAt(((move >> 12) & 0x7) - 1));
-        return sb.toString();
+    private static Move decodeMove(Board board, short move) {
+        Square from = SQUARES[(move >>> 6) & 0x3F];
+        Square to = SQUARES[move & 0x3F];
+        Piece piece = board.getPiece(from);
+
+        if (piece.getPieceType() == PieceType.KING && board.getPiece(to) == Piece.make(piece.getPieceSide(),
+                PieceType.ROOK)) {
+            int rank = from.ordinal() & ~7;
+            to = SQUARES[rank | (((to.ordinal() & 7) > (from.ordinal() & 7)) ? 6 : 2)]; // Roque
+        }
+
+        int promotion = (move >>> 12) & 0x7;
+        if (promotion == 0 || promotion >= PROMOTIONS.length)
+            return new Move(from, to, Piece.NONE);
+        return new Move(from, to, Piece.make(board.getSideToMove(), PROMOTIONS[promotion]));
     }
 
     public void generateMoves(Board board) {
+        // traduit la position actuelle en clé à trouver dans le fichier binaire
+        generateMoves(board, PolyglotKey.compute(board));
+    }
+
+    /**
+     * Récupère tous les coups légaux du livre pour la position (moves, weights, totalWeight)
+     *
+     * @param board : Position actuelle
+     * @param key2Find : Clé Polyglot de la position
+     */
+    public void generateMoves(Board board, long key2Find) {
         totalWeight = 0;
         moves.clear();
-        weights.clear();
 
-        // traduit la position actuelle en clé à trouver dans le fichier binaire
-        long key2Find = fenToPolyglot.getKey(board.getFen());
+        // Les entrées de la position sont consécutives : lectures absolues, sans allocation ni déplacement
+        // du buffer (le livre peut être lu par plusieurs threads)
+        for (int i = findFirst(key2Find); i < this.size; i++) {
+            int offset = i * ENTRY_SIZE;
+            if (this.entries.getLong(offset) != key2Find)
+                break;
 
-        try {
-            InputStream bookIs = getClass().getResourceAsStream(bookName);
-            DataInputStream dataInputStream = new DataInputStream(new BufferedInputStream(bookIs));
-
-            long key;
-            short moveInt;
-            short weight;
-            while (true) {
-                key = dataInputStream.readLong();
-
-                // Si on trouve une clé correspondante
-                if (key == key2Find) {
-                    moveInt = dataInputStream.readShort();
-                    weight = dataInputStream.readShort();
-                    dataInputStream.readInt(); // Unused learn field
-
-                    // Traduction du move dans un format connu
-                    Move move = new Move(int2MoveString(moveInt), board.getSideToMove());
-                    System.out.println(int2MoveString(moveInt) + " " + weight);
-
-                    // Ajoute ssi le move est légal
-                    if (board.isMoveLegal(move, true)) {
-                        moves.add(move);
-                        weights.add(weight);
-                        totalWeight += weight;
-                        // on s'arrête directement pour gagner du temps et récupérer le premier coup
-                        // les données sont triées, il s'agit donc du coup le plus joué dans le livre
-                        break;
-                    }
-                } else {
-                    dataInputStream.skipBytes(8); // on skip à la prochaine clé
-                }
+            short moveInt = this.entries.getShort(offset + 8);
+            int weight = Short.toUnsignedInt(this.entries.getShort(offset + 10)); // poids non signé sur 16 bits
+
+            // Traduction du move en cases et pièce de chesslib
+            Move move = decodeMove(board, moveInt);
+
+            // Ajoute ssi le move est légal
+            if (board.isMoveLegal(move, true)) {
+                if (moves.size() == weights.length)
+                    weights = Arrays.copyOf(weights, 2 * weights.length);
+                weights[moves.size()] = weight;
+                moves.add(move);
+                totalWeight += weight;
             }
-        } catch (Exception e) {}
+        }
     }
 
     /**
-     * Récupère le move le plus joué lors de l'ouverture à partir de la position actuelle
+     * Récupère le premier move du livre pour la position actuelle (les entrées d'une position sont triées par
+     * poids décroissant, il s'agit donc du coup le plus joué)
      */
     public Move getMove(Board board) {
         generateMoves(board);